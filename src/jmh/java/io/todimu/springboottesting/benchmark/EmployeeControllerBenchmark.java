@@ -0,0 +1,80 @@
+package io.todimu.springboottesting.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.todimu.springboottesting.controller.EmployeeController;
+import io.todimu.springboottesting.model.Employee;
+import io.todimu.springboottesting.service.EmployeeIngestionService;
+import io.todimu.springboottesting.service.EmployeeService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.withSettings;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Spring MVC dispatch, argument resolution and message conversion for {@link EmployeeController}, with the
+ * service stubbed out so only the web layer is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EmployeeControllerBenchmark {
+
+    private MockMvc mockMvc;
+
+    private byte[] employeeJson;
+
+    @Setup
+    public void setup() throws Exception {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        Employee employee = Employee.builder().id(1L).firstName("Todimu").lastName("Isewon").email("todimu@gmail.com").version(0L).build();
+
+        // stub-only mocks skip invocation recording so they add next to nothing per call
+        EmployeeService employeeService = mock(EmployeeService.class, withSettings().stubOnly());
+        given(employeeService.getEmployeeById(anyLong())).willReturn(Optional.of(employee));
+        given(employeeService.saveEmployee(any(Employee.class))).willAnswer(invocation -> invocation.getArgument(0));
+
+        mockMvc = MockMvcBuilders.standaloneSetup(new EmployeeController(employeeService, mock(EmployeeIngestionService.class), objectMapper))
+                .setMessageConverters(new MappingJackson2HttpMessageConverter(objectMapper))
+                .build();
+        employeeJson = objectMapper.writeValueAsBytes(employee);
+    }
+
+    @Benchmark
+    public MvcResult getEmployeeById() throws Exception {
+        return mockMvc.perform(get("/api/employees/{id}", 1L)).andReturn();
+    }
+
+    @Benchmark
+    public MvcResult createEmployee() throws Exception {
+        return mockMvc.perform(post("/api/employees")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(employeeJson))
+                .andReturn();
+    }
+}
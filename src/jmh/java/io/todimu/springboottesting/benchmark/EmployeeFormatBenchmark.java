@@ -0,0 +1,122 @@
+package io.todimu.springboottesting.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.todimu.springboottesting.dto.EmployeePage;
+import io.todimu.springboottesting.dto.EmployeeView;
+import io.todimu.springboottesting.model.Employee;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encoding cost and payload size of a single {@link Employee} and of a list page in each negotiable format. Sizes
+ * show up as the {@code employeeBytes} / {@code pageBytes} secondary results next to the timings.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EmployeeFormatBenchmark {
+
+    @Param({"json", "smile", "cbor"})
+    public String format;
+
+    @Param({"50"})
+    public int pageSize;
+
+    private ObjectWriter employeeWriter;
+
+    private ObjectReader employeeReader;
+
+    private ObjectWriter pageWriter;
+
+    private ObjectReader pageReader;
+
+    private Employee employee;
+
+    private EmployeePage page;
+
+    private byte[] employeeBytes;
+
+    private byte[] pageBytes;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class PayloadSize {
+
+        public long employeeBytes;
+
+        public long pageBytes;
+    }
+
+    @Setup
+    public void setup() throws IOException {
+        // the same builders BinaryFormatsConfig configures the HTTP converters with
+        ObjectMapper objectMapper = switch (format) {
+            case "json" -> Jackson2ObjectMapperBuilder.json().build();
+            case "smile" -> Jackson2ObjectMapperBuilder.smile().build();
+            case "cbor" -> Jackson2ObjectMapperBuilder.cbor().build();
+            default -> throw new IllegalArgumentException("Unknown format " + format);
+        };
+        employeeWriter = objectMapper.writerFor(Employee.class);
+        employeeReader = objectMapper.readerFor(Employee.class);
+        pageWriter = objectMapper.writerFor(EmployeePage.class);
+        pageReader = objectMapper.readerFor(EmployeePage.class);
+
+        Instant lastModified = Instant.now();
+        employee = Employee.builder().id(1L).firstName("Todimu").lastName("Isewon").email("todimu@gmail.com")
+                .version(3L).lastModified(lastModified).build();
+        List<EmployeeView> employees = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            employees.add(new EmployeeView(i, "First" + i, "Last" + i, "employee" + i + "@gmail.com", 0L, lastModified));
+        }
+        page = new EmployeePage(employees, "AAAAAAAAADI");
+
+        employeeBytes = employeeWriter.writeValueAsBytes(employee);
+        pageBytes = pageWriter.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] serializeEmployee(PayloadSize size) throws IOException {
+        byte[] bytes = employeeWriter.writeValueAsBytes(employee);
+        size.employeeBytes = bytes.length;
+        return bytes;
+    }
+
+    @Benchmark
+    public Employee deserializeEmployee() throws IOException {
+        return employeeReader.readValue(employeeBytes);
+    }
+
+    @Benchmark
+    public byte[] serializePage(PayloadSize size) throws IOException {
+        byte[] bytes = pageWriter.writeValueAsBytes(page);
+        size.pageBytes = bytes.length;
+        return bytes;
+    }
+
+    @Benchmark
+    public EmployeePage deserializePage() throws IOException {
+        return pageReader.readValue(pageBytes);
+    }
+}
@@ -0,0 +1,94 @@
+package io.todimu.springboottesting.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.todimu.springboottesting.model.Employee;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson cost of the {@link Employee} payloads the controller reads and writes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EmployeeJsonBenchmark {
+
+    @Param({"50", "500"})
+    public int listSize;
+
+    private ObjectWriter employeeWriter;
+
+    private ObjectReader employeeReader;
+
+    private ObjectWriter listWriter;
+
+    private ObjectReader listReader;
+
+    private Employee employee;
+
+    private List<Employee> employees;
+
+    private byte[] employeeJson;
+
+    private byte[] listJson;
+
+    @Setup
+    public void setup() throws JsonProcessingException {
+        // same builder Spring Boot uses for its ObjectMapper
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        employeeWriter = objectMapper.writerFor(Employee.class);
+        employeeReader = objectMapper.readerFor(Employee.class);
+        listWriter = objectMapper.writerFor(new TypeReference<List<Employee>>() { });
+        listReader = objectMapper.readerFor(new TypeReference<List<Employee>>() { });
+
+        employee = Employee.builder().id(1L).firstName("Todimu").lastName("Isewon").email("todimu@gmail.com").version(3L).build();
+        employees = new ArrayList<>(listSize);
+        for (int i = 0; i < listSize; i++) {
+            employees.add(Employee.builder().id(i).firstName("First" + i).lastName("Last" + i).email("employee" + i + "@gmail.com").version(0L).build());
+        }
+
+        employeeJson = employeeWriter.writeValueAsBytes(employee);
+        listJson = listWriter.writeValueAsBytes(employees);
+    }
+
+    @Benchmark
+    public byte[] serializeEmployee() throws JsonProcessingException {
+        return employeeWriter.writeValueAsBytes(employee);
+    }
+
+    @Benchmark
+    public Employee deserializeEmployee() throws Exception {
+        return employeeReader.readValue(employeeJson);
+    }
+
+    @Benchmark
+    public byte[] serializeEmployeeList() throws JsonProcessingException {
+        return listWriter.writeValueAsBytes(employees);
+    }
+
+    @Benchmark
+    public List<Employee> deserializeEmployeeList() throws Exception {
+        return listReader.readValue(listJson);
+    }
+}
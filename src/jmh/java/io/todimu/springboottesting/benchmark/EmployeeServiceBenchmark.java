@@ -0,0 +1,116 @@
+package io.todimu.springboottesting.benchmark;
+
+import io.todimu.springboottesting.dto.EmployeePage;
+import io.todimu.springboottesting.dto.EmployeeView;
+import io.todimu.springboottesting.model.Employee;
+import io.todimu.springboottesting.service.EmployeeService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link EmployeeService} operations through the real Spring context, JPA and an embedded H2 database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EmployeeServiceBenchmark {
+
+    @Param({"1000"})
+    public int employees;
+
+    @Param({"caffeine", "none"})
+    public String cache;
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private ConfigurableApplicationContext context;
+
+    private EmployeeService employeeService;
+
+    private long[] ids;
+
+    private List<Long> lookupIds;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = BenchmarkApplication.start(WebApplicationType.NONE, "spring.cache.type=" + cache);
+        employeeService = context.getBean(EmployeeService.class);
+
+        List<Employee> seed = new ArrayList<>(employees);
+        for (int i = 0; i < employees; i++) {
+            seed.add(Employee.builder()
+                    .firstName("First" + i)
+                    .lastName("Last" + i)
+                    .email("seed" + i + "@benchmark.io")
+                    .build());
+        }
+        ids = employeeService.saveEmployees(seed).stream().mapToLong(Employee::getId).toArray();
+
+        lookupIds = new ArrayList<>();
+        for (int i = 0; i < Math.min(100, ids.length); i++) {
+            lookupIds.add(ids[i * (ids.length / Math.min(100, ids.length))]);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Optional<Employee> getEmployeeById() {
+        return employeeService.getEmployeeById(randomId());
+    }
+
+    @Benchmark
+    public EmployeePage getFirstPage() {
+        return employeeService.getEmployees(null, 50);
+    }
+
+    @Benchmark
+    public List<EmployeeView> getEmployeesByIds() {
+        return employeeService.getEmployeesByIds(lookupIds);
+    }
+
+    @Benchmark
+    public boolean patchEmployee() {
+        return employeeService.patchEmployee(randomId(), Employee.builder().firstName("Patched").build());
+    }
+
+    @Benchmark
+    public boolean saveAndDeleteEmployee() {
+        Employee employee = employeeService.saveEmployee(Employee.builder()
+                .firstName("Bench")
+                .lastName("Mark")
+                .email("bench" + sequence.incrementAndGet() + "@benchmark.io")
+                .build());
+        return employeeService.deleteEmployee(employee.getId());
+    }
+
+    private long randomId() {
+        return ids[ThreadLocalRandom.current().nextInt(ids.length)];
+    }
+}
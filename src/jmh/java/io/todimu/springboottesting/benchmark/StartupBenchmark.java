@@ -0,0 +1,147 @@
+package io.todimu.springboottesting.benchmark;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cold start comparison of the build modes of the {@code startup} and {@code native} profiles. Every run starts a
+ * fresh process on its own in-memory database with one seeded employee and measures the time from launching it to
+ * the first {@code 200} from {@code GET /api/employees/1}, which includes Hibernate, Jackson and Tomcat warming up
+ * on the first request. Modes whose artifacts were not built are skipped, the first runs of each mode only warm the
+ * file system cache and are not counted.
+ * <p>
+ * Run by {@code ./mvnw -Pstartup -DskipTests verify}, or standalone with the same system properties:
+ * {@code java -Dstartup.dir=target/startup ... src/jmh/java/io/todimu/springboottesting/benchmark/StartupBenchmark.java}
+ */
+public final class StartupBenchmark {
+
+    private static final String MAIN_CLASS = "io.todimu.springboottesting.SpringBootTestingApplication";
+
+    private static final Duration START_TIMEOUT = Duration.ofMinutes(2);
+
+    private static final String SEED = "insert into employee (id, first_name, last_name, email, version) "
+            + "values (1, 'Todimu', 'Isewon', 'todimu@gmail.com', 0);\n";
+
+    private StartupBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path startupDir = Path.of(System.getProperty("startup.dir", "target/startup"));
+        Path jar = Path.of(System.getProperty("startup.jar", "target/spring-boot-testing-0.0.1-SNAPSHOT.jar"));
+        Path executableJar = Path.of(System.getProperty("startup.executable-jar", "target/spring-boot-testing-0.0.1-SNAPSHOT-exec.jar"));
+        Path archive = Path.of(System.getProperty("startup.archive", startupDir.resolve("application.jsa").toString()));
+        Path nativeImage = Path.of(System.getProperty("startup.native", "target/spring-boot-testing"));
+        int runs = Integer.getInteger("startup.runs", 5);
+        int warmups = Integer.getInteger("startup.warmups", 1);
+
+        // the same JDK that runs the benchmark, a CDS archive only maps into the JVM build that wrote it
+        String java = ProcessHandle.current().info().command().orElse("java");
+        String classpath = jar + System.getProperty("path.separator") + startupDir.resolve("lib").resolve("*");
+
+        List<Mode> modes = new ArrayList<>();
+        modes.add(new Mode("executable-jar", executableJar, List.of(java, "-jar", executableJar.toString())));
+        modes.add(new Mode("jvm", jar, List.of(java, "-cp", classpath, MAIN_CLASS)));
+        modes.add(new Mode("aot", jar, List.of(java, "-Dspring.aot.enabled=true", "-cp", classpath, MAIN_CLASS)));
+        modes.add(new Mode("aot+cds", archive, List.of(java, "-XX:SharedArchiveFile=" + archive, "-Dspring.aot.enabled=true",
+                "-cp", classpath, MAIN_CLASS)));
+        modes.add(new Mode("native", nativeImage, List.of(nativeImage.toString())));
+
+        Path seedDir = Files.createDirectories(startupDir.resolve("seed"));
+        // Flyway runs afterMigrate.sql from every location once the migrations are done
+        Files.writeString(seedDir.resolve("afterMigrate.sql"), SEED);
+        Path logDir = Files.createDirectories(startupDir.resolve("logs"));
+
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(200)).build();
+        List<String> report = new ArrayList<>();
+        report.add("mode,runs,min_ms,median_ms,max_ms");
+
+        for (Mode mode : modes) {
+            if (!Files.exists(mode.artifact())) {
+                System.out.printf("%-15s skipped, %s not built%n", mode.name(), mode.artifact());
+                continue;
+            }
+            List<Long> millis = new ArrayList<>();
+            for (int run = 0; run < warmups + runs; run++) {
+                long elapsed = timeToFirstResponse(client, mode, seedDir, logDir.resolve(mode.name() + "-" + run + ".log"));
+                if (run >= warmups) {
+                    millis.add(elapsed);
+                }
+            }
+            millis.sort(null);
+            long median = millis.get(millis.size() / 2);
+            System.out.printf("%-15s min %6d ms   median %6d ms   max %6d ms%n",
+                    mode.name(), millis.get(0), median, millis.get(millis.size() - 1));
+            report.add(String.format(Locale.ROOT, "%s,%d,%d,%d,%d",
+                    mode.name(), millis.size(), millis.get(0), median, millis.get(millis.size() - 1)));
+        }
+
+        Path results = startupDir.resolve("startup-result.csv");
+        Files.write(results, report);
+        System.out.println("Results written to " + results);
+    }
+
+    private static long timeToFirstResponse(HttpClient client, Mode mode, Path seedDir, Path log) throws Exception {
+        int port = freePort();
+        List<String> command = new ArrayList<>(mode.command());
+        command.addAll(List.of(
+                "--server.port=" + port,
+                "--spring.datasource.url=jdbc:h2:mem:startup;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.flyway.locations=classpath:db/migration/{vendor},filesystem:" + seedDir.toAbsolutePath(),
+                "--spring.jpa.show-sql=false"));
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/employees/1"))
+                .timeout(Duration.ofSeconds(10))
+                .GET()
+                .build();
+
+        ProcessBuilder builder = new ProcessBuilder(command).redirectErrorStream(true).redirectOutput(log.toFile());
+        long start = System.nanoTime();
+        Process process = builder.start();
+        try {
+            while (System.nanoTime() - start < START_TIMEOUT.toNanos()) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException(mode.name() + " exited with " + process.exitValue() + ", see " + log);
+                }
+                try {
+                    HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                    if (response.statusCode() == 200) {
+                        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                    }
+                } catch (IOException e) {
+                    // not listening yet, or the connection was dropped while the server came up
+                }
+                Thread.sleep(5);
+            }
+            throw new IllegalStateException(mode.name() + " did not answer within " + START_TIMEOUT + ", see " + log);
+        } finally {
+            process.destroy();
+            if (!process.waitFor(10, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    private static int freePort() {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private record Mode(String name, Path artifact, List<String> command) {
+    }
+}
@@ -0,0 +1,167 @@
+package io.todimu.springboottesting.config;
+
+import java.time.Duration;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Concurrency limit that follows measured latency, after the gradient algorithm of Netflix' concurrency-limits.
+ * A slow moving average of response times serves as the no-queueing baseline; while recent responses stay close to
+ * it the limit grows by about its square root per sample, once they drift above it the limit shrinks in proportion
+ * (at most halving). Callers over the limit wait a bounded time for a slot and are turned away after that.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final double SMOOTHING = 0.2;
+
+    // how far recent latency may rise above the baseline before the limit starts shrinking
+    private static final double TOLERANCE = 1.5;
+
+    private static final double LONG_WINDOW_FACTOR = 2.0 / (600 + 1);
+
+    private static final double BACKOFF_RATIO = 0.9;
+
+    private final int minLimit;
+
+    private final int maxLimit;
+
+    private final int maxWaiters;
+
+    private final LongSupplier nanoClock;
+
+    private final ReentrantLock lock = new ReentrantLock(true);
+
+    private final Condition slotFreed = lock.newCondition();
+
+    private volatile double estimatedLimit;
+
+    private volatile int inFlight;
+
+    private int waiting;
+
+    private double longRtt;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, int maxWaiters) {
+        this(initialLimit, minLimit, maxLimit, maxWaiters, System::nanoTime);
+    }
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, int maxWaiters, LongSupplier nanoClock) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.maxWaiters = maxWaiters;
+        this.nanoClock = nanoClock;
+        this.estimatedLimit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    /**
+     * Takes a slot, waiting up to {@code maxWait} for one to free up. Returns {@code null} when none did in time or
+     * too many callers are waiting already.
+     */
+    public Permit tryAcquire(Duration maxWait) throws InterruptedException {
+        long remaining = maxWait.toNanos();
+        lock.lockInterruptibly();
+        try {
+            while (inFlight >= getLimit()) {
+                if (remaining <= 0 || waiting >= maxWaiters) {
+                    return null;
+                }
+                waiting++;
+                try {
+                    remaining = slotFreed.awaitNanos(remaining);
+                } finally {
+                    waiting--;
+                }
+            }
+            inFlight++;
+            return new Permit(inFlight, nanoClock.getAsLong());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getLimit() {
+        return (int) estimatedLimit;
+    }
+
+    public int getInFlight() {
+        return inFlight;
+    }
+
+    private void release(Permit permit, long rtt, boolean dropped) {
+        lock.lock();
+        try {
+            inFlight--;
+            if (dropped) {
+                estimatedLimit = clamp(estimatedLimit * BACKOFF_RATIO);
+            } else if (rtt > 0) {
+                estimatedLimit = clamp(nextLimit(rtt, permit.inFlightAtStart));
+            }
+            slotFreed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private double nextLimit(long rtt, int inFlightAtStart) {
+        longRtt = longRtt == 0 ? rtt : longRtt + (rtt - longRtt) * LONG_WINDOW_FACTOR;
+
+        // after a long slow period the baseline lags far behind, pull it down faster so the limit can recover
+        if (longRtt / rtt > 2) {
+            longRtt *= 0.95;
+        }
+
+        // a limit that is not being used says nothing about what the service could take
+        if (inFlightAtStart < estimatedLimit / 2) {
+            return estimatedLimit;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * longRtt / rtt));
+        double newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        return estimatedLimit * (1 - SMOOTHING) + newLimit * SMOOTHING;
+    }
+
+    private double clamp(double limit) {
+        return Math.max(minLimit, Math.min(maxLimit, limit));
+    }
+
+    /**
+     * A taken slot, hand it back exactly once.
+     */
+    public final class Permit {
+
+        private final int inFlightAtStart;
+
+        private final long startNanos;
+
+        private boolean released;
+
+        private Permit(int inFlightAtStart, long startNanos) {
+            this.inFlightAtStart = inFlightAtStart;
+            this.startNanos = startNanos;
+        }
+
+        // completed normally, its latency feeds the limit
+        public void success() {
+            release(nanoClock.getAsLong() - startNanos, false);
+        }
+
+        // failed or timed out under load, back off
+        public void dropped() {
+            release(0, true);
+        }
+
+        // says nothing about load (async hand-off), only frees the slot
+        public void ignore() {
+            release(0, false);
+        }
+
+        private void release(long rtt, boolean dropped) {
+            if (released) {
+                return;
+            }
+            released = true;
+            AdaptiveConcurrencyLimiter.this.release(this, rtt, dropped);
+        }
+    }
+}
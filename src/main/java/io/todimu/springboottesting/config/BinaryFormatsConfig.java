@@ -0,0 +1,48 @@
+package io.todimu.springboottesting.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Compact binary encodings of the same Jackson model for service-to-service callers, for request and response
+ * bodies: CBOR ({@code application/cbor}) and Smile ({@code application/x-jackson-smile}). Both mappers come from
+ * Boot's {@link Jackson2ObjectMapperBuilder}, so {@code spring.jackson.*} applies to them as it does to JSON. JSON
+ * stays the default, a binary format is only picked when the caller asks for it in {@code Accept} or sends it. The
+ * WebFlux codecs of the reactive build are registered by {@code ReactiveBinaryFormatsConfig}.
+ */
+@Configuration
+public class BinaryFormatsConfig {
+
+    public static final MediaType APPLICATION_SMILE = new MediaType("application", "x-jackson-smile");
+
+    // same types as the converters Spring MVC registers by default, so Boot swaps these in place, behind JSON
+    @Bean
+    @Profile("!reactive")
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(ObjectProvider<Jackson2ObjectMapperBuilder> builder) {
+        return new MappingJackson2CborHttpMessageConverter(cborMapper(builder));
+    }
+
+    @Bean
+    @Profile("!reactive")
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(ObjectProvider<Jackson2ObjectMapperBuilder> builder) {
+        return new MappingJackson2SmileHttpMessageConverter(smileMapper(builder));
+    }
+
+    // the builder bean is prototype scoped, every call gets a fresh one
+    static ObjectMapper cborMapper(ObjectProvider<Jackson2ObjectMapperBuilder> builder) {
+        return builder.getObject().factory(new CBORFactory()).build();
+    }
+
+    static ObjectMapper smileMapper(ObjectProvider<Jackson2ObjectMapperBuilder> builder) {
+        return builder.getObject().factory(new SmileFactory()).build();
+    }
+}
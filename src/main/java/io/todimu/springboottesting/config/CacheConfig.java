@@ -0,0 +1,13 @@
+package io.todimu.springboottesting.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+@Configuration
+// outside the transaction interceptor, so a write's @CachePut and @CacheEvict only apply once it has committed
+@EnableCaching(order = Ordered.LOWEST_PRECEDENCE - 1)
+public class CacheConfig {
+
+    public static final String EMPLOYEE_CACHE = "employees";
+}
@@ -0,0 +1,70 @@
+package io.todimu.springboottesting.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+
+/**
+ * Opt-in adaptive concurrency limiting for {@code /api/*}. Limits, in-flight requests and rejections are published
+ * as {@code app.concurrency.*} metrics tagged with {@code endpoint=read|write}.
+ */
+@Configuration
+@Profile("!reactive")
+@ConditionalOnProperty(name = "app.concurrency-limit.enabled", havingValue = "true")
+public class ConcurrencyLimitConfig {
+
+    @Bean
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter(Environment environment, MeterRegistry meterRegistry) {
+        AdaptiveConcurrencyLimiter readLimiter = limiter("read", 20, 200, environment, meterRegistry);
+        AdaptiveConcurrencyLimiter writeLimiter = limiter("write", 10, 50, environment, meterRegistry);
+
+        ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(readLimiter, writeLimiter,
+                environment.getProperty("app.concurrency-limit.queue-timeout", Duration.class, Duration.ofMillis(50)),
+                environment.getProperty("app.concurrency-limit.retry-after", Duration.class, Duration.ofSeconds(1)),
+                rejected("read", meterRegistry)::increment,
+                rejected("write", meterRegistry)::increment);
+
+        // right behind the observation filter so shed requests still show up in http.server.requests, ahead of
+        // everything else so they cost as little as possible
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+
+    private static AdaptiveConcurrencyLimiter limiter(String endpoint, int initialLimit, int maxLimit,
+                                                      Environment environment, MeterRegistry meterRegistry) {
+        String prefix = "app.concurrency-limit." + endpoint + ".";
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(
+                environment.getProperty(prefix + "initial-limit", Integer.class, initialLimit),
+                environment.getProperty(prefix + "min-limit", Integer.class, 4),
+                environment.getProperty(prefix + "max-limit", Integer.class, maxLimit),
+                environment.getProperty(prefix + "max-waiters", Integer.class, maxLimit));
+
+        Gauge.builder("app.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Current adaptive concurrency limit")
+                .tag("endpoint", endpoint)
+                .register(meterRegistry);
+        Gauge.builder("app.concurrency.in-flight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                .description("Requests currently holding a concurrency slot")
+                .tag("endpoint", endpoint)
+                .register(meterRegistry);
+        return limiter;
+    }
+
+    private static Counter rejected(String endpoint, MeterRegistry meterRegistry) {
+        return Counter.builder("app.concurrency.rejected")
+                .description("Requests shed with a 503 because no concurrency slot freed up in time")
+                .tag("endpoint", endpoint)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,83 @@
+package io.todimu.springboottesting.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Sheds load in front of the controllers: reads and writes each get an {@link AdaptiveConcurrencyLimiter}, a
+ * request that finds no free slot within {@code queueTimeout} is answered 503 with a {@code Retry-After} right
+ * away instead of queueing on the connection pool until it times out.
+ */
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private static final Set<String> READ_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+
+    private final AdaptiveConcurrencyLimiter readLimiter;
+
+    private final AdaptiveConcurrencyLimiter writeLimiter;
+
+    private final Duration queueTimeout;
+
+    private final String retryAfter;
+
+    private final Runnable onReadRejected;
+
+    private final Runnable onWriteRejected;
+
+    public ConcurrencyLimitFilter(AdaptiveConcurrencyLimiter readLimiter, AdaptiveConcurrencyLimiter writeLimiter,
+                                  Duration queueTimeout, Duration retryAfter,
+                                  Runnable onReadRejected, Runnable onWriteRejected) {
+        this.readLimiter = readLimiter;
+        this.writeLimiter = writeLimiter;
+        this.queueTimeout = queueTimeout;
+        this.retryAfter = String.valueOf(Math.max(1, retryAfter.toSeconds()));
+        this.onReadRejected = onReadRejected;
+        this.onWriteRejected = onWriteRejected;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        boolean read = READ_METHODS.contains(request.getMethod());
+
+        AdaptiveConcurrencyLimiter.Permit permit;
+        try {
+            permit = (read ? readLimiter : writeLimiter).tryAcquire(queueTimeout);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            permit = null;
+        }
+
+        if (permit == null) {
+            (read ? onReadRejected : onWriteRejected).run();
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, retryAfter);
+            return;
+        }
+
+        boolean completed = false;
+        try {
+            filterChain.doFilter(request, response);
+            completed = true;
+        } finally {
+            // a streamed export outlives this call, its duration is not a latency sample
+            if (request.isAsyncStarted()) {
+                permit.ignore();
+            } else if (completed && response.getStatus() < 500) {
+                permit.success();
+            } else {
+                permit.dropped();
+            }
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package io.todimu.springboottesting.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Pins a client's reads to the primary for {@code window} after one of its own writes, so it never reads a replica
+ * that has not caught up with it yet.
+ * <p>
+ * The time of the write travels with the client: every write response sets the {@value #LAST_WRITE_COOKIE} cookie
+ * and the {@value #LAST_WRITE_HEADER} header, and a request carrying either (header first) is pinned while it is
+ * within the window, whichever instance behind the load balancer it lands on. The instances' clocks only need to
+ * agree to well within the window. Clients that send {@code clientHeader} are also remembered locally by it, which
+ * only holds on the instance that took the write. A request with neither marker nor client id is never pinned: its
+ * remote address is no identity behind a load balancer or NAT, where one write would pin everybody to the primary.
+ * <p>
+ * The marker is set before the write runs, since the response may be committed by the time it returns; a write that
+ * fails pins its client as well, which costs the primary a few reads and nothing else.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    public static final String LAST_WRITE_COOKIE = "last-write";
+
+    public static final String LAST_WRITE_HEADER = "X-Last-Write";
+
+    private static final Set<String> READ_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+
+    private final String clientHeader;
+
+    private final Duration window;
+
+    private final Clock clock;
+
+    private final Cache<String, Boolean> recentWriters;
+
+    public ReadYourWritesFilter(String clientHeader, Duration window) {
+        this(clientHeader, window, Clock.systemUTC());
+    }
+
+    public ReadYourWritesFilter(String clientHeader, Duration window, Clock clock) {
+        this.clientHeader = clientHeader;
+        this.window = window;
+        this.clock = clock;
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(window)
+                .maximumSize(100_000)
+                .build();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        String client = request.getHeader(clientHeader);
+        boolean identified = client != null && !client.isBlank();
+        boolean pinned = withinWindow(lastWriteOf(request)) || identified && recentWriters.getIfPresent(client) != null;
+
+        if (!READ_METHODS.contains(request.getMethod())) {
+            markWrite(response);
+            if (identified) {
+                recentWriters.put(client, Boolean.TRUE);
+            }
+        }
+
+        if (pinned) {
+            try (ReplicaRoutingContext.Scope ignored = ReplicaRoutingContext.forcePrimary()) {
+                filterChain.doFilter(request, response);
+            }
+        } else {
+            filterChain.doFilter(request, response);
+        }
+    }
+
+    private void markWrite(HttpServletResponse response) {
+        String now = String.valueOf(clock.millis());
+        response.setHeader(LAST_WRITE_HEADER, now);
+        response.addHeader(HttpHeaders.SET_COOKIE, ResponseCookie.from(LAST_WRITE_COOKIE, now)
+                .path("/")
+                .maxAge(window)
+                .httpOnly(true)
+                .sameSite("Lax")
+                .build()
+                .toString());
+    }
+
+    // a marker from the future is not trusted beyond one window, so a forged one cannot pin a client for good
+    private boolean withinWindow(Long lastWrite) {
+        if (lastWrite == null) {
+            return false;
+        }
+        long age = clock.millis() - lastWrite;
+        return Math.abs(age) < window.toMillis();
+    }
+
+    private static Long lastWriteOf(HttpServletRequest request) {
+        String value = request.getHeader(LAST_WRITE_HEADER);
+        if (value == null && request.getCookies() != null) {
+            for (Cookie cookie : request.getCookies()) {
+                if (LAST_WRITE_COOKIE.equals(cookie.getName())) {
+                    value = cookie.getValue();
+                }
+            }
+        }
+        try {
+            return value != null ? Long.valueOf(value) : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
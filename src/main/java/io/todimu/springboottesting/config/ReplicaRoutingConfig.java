@@ -0,0 +1,106 @@
+package io.todimu.springboottesting.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Opt-in read/write splitting: read-only transactions go to the {@code app.datasource.routing.replicas[n]}
+ * datasources, everything else to {@code spring.datasource}. Every pool takes its settings from
+ * {@code spring.datasource.hikari.*}, replica pools are read-only and do not fail startup when a replica is down.
+ */
+@Configuration
+@Profile("!reactive")
+@ConditionalOnProperty(name = "app.datasource.routing.enabled", havingValue = "true")
+public class ReplicaRoutingConfig {
+
+    private final List<HikariDataSource> pools = new ArrayList<>();
+
+    private ReplicaRoutingDataSource routingDataSource;
+
+    @Bean
+    public DataSource dataSource(DataSourceProperties properties, Environment environment, MeterRegistry meterRegistry) {
+        Binder binder = Binder.get(environment);
+
+        HikariDataSource primary = pool("primary", properties.initializeDataSourceBuilder(), binder, meterRegistry);
+
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        List<Replica> replicaProperties = binder.bind("app.datasource.routing.replicas", Bindable.listOf(Replica.class)).orElse(List.of());
+        for (int i = 0; i < replicaProperties.size(); i++) {
+            Replica replica = replicaProperties.get(i);
+            String name = "replica-" + i;
+
+            HikariDataSource pool = pool(name, DataSourceBuilder.create()
+                    .url(replica.url())
+                    .username(replica.username() != null ? replica.username() : properties.determineUsername())
+                    .password(replica.password() != null ? replica.password() : properties.determinePassword()), binder, meterRegistry);
+            pool.setReadOnly(true);
+            pool.setInitializationFailTimeout(-1);
+            pool.setConnectionTimeout(environment.getProperty("app.datasource.routing.replica-connection-timeout", Duration.class, Duration.ofSeconds(2)).toMillis());
+            replicas.put(name, pool);
+        }
+
+        routingDataSource = new ReplicaRoutingDataSource(primary, replicas);
+        routingDataSource.afterPropertiesSet();
+        routingDataSource.startHealthChecks(environment.getProperty("app.datasource.routing.health-check-interval", Duration.class, Duration.ofSeconds(5)));
+
+        Gauge.builder("app.datasource.replicas.healthy", routingDataSource, ReplicaRoutingDataSource::healthyReplicaCount)
+                .description("Replicas currently receiving reads")
+                .register(meterRegistry);
+
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    @Bean
+    public ReadYourWritesFilter readYourWritesFilter(Environment environment) {
+        return new ReadYourWritesFilter(
+                environment.getProperty("app.datasource.routing.client-header", "X-Client-Id"),
+                environment.getProperty("app.datasource.routing.read-your-writes-window", Duration.class, Duration.ofSeconds(5)));
+    }
+
+    // parallel id lookups run on the application task executor, carry a client's primary pinning over to it
+    @Bean
+    public TaskDecorator replicaRoutingTaskDecorator() {
+        return ReplicaRoutingContext::propagate;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (routingDataSource != null) {
+            routingDataSource.shutdown();
+        }
+        pools.forEach(HikariDataSource::close);
+    }
+
+    private HikariDataSource pool(String name, DataSourceBuilder<?> builder, Binder binder, MeterRegistry meterRegistry) {
+        HikariDataSource pool = builder.type(HikariDataSource.class).build();
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+        pool.setPoolName(name);
+        pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        pools.add(pool);
+        return pool;
+    }
+
+    record Replica(String url, String username, String password) {
+    }
+}
@@ -0,0 +1,60 @@
+package io.todimu.springboottesting.config;
+
+import java.util.function.Supplier;
+
+/**
+ * Per-thread override that pins reads to the primary, for a client inside its read-your-writes window or for reads
+ * whose result outlives the request. A no-op when replica routing is disabled.
+ */
+public final class ReplicaRoutingContext {
+
+    private static final ThreadLocal<Boolean> PRIMARY_FORCED = new ThreadLocal<>();
+
+    private ReplicaRoutingContext() {
+    }
+
+    public static boolean isPrimaryForced() {
+        return Boolean.TRUE.equals(PRIMARY_FORCED.get());
+    }
+
+    /**
+     * Pins the current thread to the primary until the returned scope is closed.
+     */
+    public static Scope forcePrimary() {
+        Boolean previous = PRIMARY_FORCED.get();
+        PRIMARY_FORCED.set(Boolean.TRUE);
+        return () -> {
+            if (previous == null) {
+                PRIMARY_FORCED.remove();
+            } else {
+                PRIMARY_FORCED.set(previous);
+            }
+        };
+    }
+
+    public static <T> T onPrimary(Supplier<T> action) {
+        try (Scope ignored = forcePrimary()) {
+            return action.get();
+        }
+    }
+
+    /**
+     * Wraps {@code task} so it runs with the caller's override, for work handed to another thread.
+     */
+    public static Runnable propagate(Runnable task) {
+        if (!isPrimaryForced()) {
+            return task;
+        }
+        return () -> {
+            try (Scope ignored = forcePrimary()) {
+                task.run();
+            }
+        };
+    }
+
+    public interface Scope extends AutoCloseable {
+
+        @Override
+        void close();
+    }
+}
@@ -0,0 +1,43 @@
+package io.todimu.springboottesting.config;
+
+import io.todimu.springboottesting.dto.EmployeeView;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+/**
+ * Support for the startup-optimised builds ({@code -Pstartup}, {@code -Pnative}). The AppCDS training run starts the
+ * application with {@code app.startup.exit-on-ready=true} so it stops as soon as it could take traffic, and the
+ * runtime hints cover what a native image cannot discover on its own.
+ */
+@Configuration
+@ImportRuntimeHints(StartupConfig.StartupRuntimeHints.class)
+public class StartupConfig {
+
+    // not @ConditionalOnProperty: AOT processing fixes the bean set at build time, the flag has to work after it
+    @Bean
+    public ApplicationListener<ApplicationReadyEvent> exitOnReady() {
+        return event -> {
+            if (event.getApplicationContext().getEnvironment().getProperty("app.startup.exit-on-ready", Boolean.class, false)) {
+                System.exit(SpringApplication.exit(event.getApplicationContext()));
+            }
+        };
+    }
+
+    static class StartupRuntimeHints implements RuntimeHintsRegistrar {
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            // instantiated reflectively by Hibernate for the JPQL "select new ...EmployeeView(...)" projections
+            hints.reflection().registerType(EmployeeView.class, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS);
+            // Boot only registers db/migration/*, the scripts live one directory further down per vendor
+            hints.resources().registerPattern("db/migration/*/*.sql");
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package io.todimu.springboottesting.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Opt-in virtual thread mode: Tomcat request threads and the application task executor (MVC async, parallel id
+ * lookups) become virtual threads. The API is looked up reflectively so the default Java 17 build still compiles,
+ * enabling it on an older runtime fails fast at startup.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+
+    // Hikari's default maximumPoolSize, for datasources whose pool cannot be seen
+    private static final int DEFAULT_POOL_SIZE = 10;
+
+    private final ExecutorService virtualThreads = newVirtualThreadPerTaskExecutor();
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer() {
+        return protocolHandler -> protocolHandler.setExecutor(virtualThreads);
+    }
+
+    @Bean(name = TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+    public AsyncTaskExecutor applicationTaskExecutor(ObjectProvider<TaskDecorator> taskDecorator) {
+        TaskExecutorAdapter executor = new TaskExecutorAdapter(virtualThreads);
+        taskDecorator.ifUnique(executor::setTaskDecorator);
+        return executor;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.threads.virtual.pinning-detection", havingValue = "true", matchIfMissing = true)
+    public VirtualThreadPinningMonitor virtualThreadPinningMonitor(Environment environment, MeterRegistry meterRegistry) {
+        Duration threshold = environment.getProperty("app.threads.virtual.pinning-threshold", Duration.class, Duration.ofMillis(20));
+        return new VirtualThreadPinningMonitor(threshold, meterRegistry);
+    }
+
+    // with unbounded virtual threads the pool is the bottleneck, queue in front of it on a semaphore sized to it
+    @Bean
+    public static BeanPostProcessor boundedDataSourcePostProcessor(Environment environment) {
+        Duration acquireTimeout = environment.getProperty("app.threads.virtual.jdbc-acquire-timeout", Duration.class, Duration.ofSeconds(5));
+        Integer maxConcurrency = environment.getProperty("app.threads.virtual.max-jdbc-concurrency", Integer.class);
+
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof BoundedDataSource)) {
+                    int permits = maxConcurrency != null ? maxConcurrency : poolCapacity(dataSource);
+                    return new BoundedDataSource(dataSource, permits, acquireTimeout);
+                }
+                return bean;
+            }
+        };
+    }
+
+    // looks through proxies and routing to the pools themselves, with replica routing every pool can be busy at once
+    static int poolCapacity(DataSource dataSource) {
+        if (dataSource instanceof HikariDataSource hikari) {
+            return hikari.getMaximumPoolSize();
+        }
+        if (dataSource instanceof DelegatingDataSource delegating && delegating.getTargetDataSource() != null) {
+            return poolCapacity(delegating.getTargetDataSource());
+        }
+        if (dataSource instanceof AbstractRoutingDataSource routing && !routing.getResolvedDataSources().isEmpty()) {
+            return routing.getResolvedDataSources().values().stream().mapToInt(VirtualThreadConfig::poolCapacity).sum();
+        }
+        return DEFAULT_POOL_SIZE;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        virtualThreads.shutdown();
+    }
+
+    static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException("app.threads.virtual.enabled=true needs a Java 21+ runtime, running on " + Runtime.version(), e);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Could not create a virtual thread executor", e);
+        }
+    }
+}
@@ -1,22 +1,57 @@
 package io.todimu.springboottesting.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.todimu.springboottesting.dto.DeleteResult;
+import io.todimu.springboottesting.dto.EmployeePage;
+import io.todimu.springboottesting.dto.EmployeeSearchPage;
+import io.todimu.springboottesting.dto.EmployeeView;
+import io.todimu.springboottesting.dto.IngestionStatus;
+import io.todimu.springboottesting.exception.PreconditionFailedException;
+import io.todimu.springboottesting.exception.ResourceConflictException;
 import io.todimu.springboottesting.model.Employee;
+import io.todimu.springboottesting.service.EmployeeIngestionService;
 import io.todimu.springboottesting.service.EmployeeService;
+import io.todimu.springboottesting.util.EmployeeETags;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
+import org.springframework.web.accept.HeaderContentNegotiationStrategy;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
+
 
 @RestController
+@Profile("!reactive")
 @RequestMapping("/api/employees")
 public class EmployeeController {
 
+    private static final HeaderContentNegotiationStrategy ACCEPT_HEADER = new HeaderContentNegotiationStrategy();
+
     private final EmployeeService employeeService;
 
-    public EmployeeController(EmployeeService employeeService) {
+    private final EmployeeIngestionService employeeIngestionService;
+
+    private final ObjectWriter employeeWriter;
+
+    public EmployeeController(EmployeeService employeeService, EmployeeIngestionService employeeIngestionService, ObjectMapper objectMapper) {
         this.employeeService = employeeService;
+        this.employeeIngestionService = employeeIngestionService;
+        this.employeeWriter = objectMapper.writerFor(Employee.class);
     }
 
     @PostMapping
@@ -25,41 +60,202 @@ public class EmployeeController {
         return  employeeService.saveEmployee(employee);
     }
 
+    @PostMapping("batch")
+    @ResponseStatus(HttpStatus.CREATED)
+    public List<Employee> createEmployees(@RequestBody List<Employee> employees) {
+        return employeeService.saveEmployees(employees);
+    }
+
+    // queued for the background writer, poll the Location for the outcome; 429 when the queue is full
+    @PostMapping("async")
+    public ResponseEntity<IngestionStatus> submitEmployee(@RequestBody Employee employee) {
+        IngestionStatus status = employeeIngestionService.submit(employee);
+        return ResponseEntity.accepted()
+                .location(ServletUriComponentsBuilder.fromCurrentRequest()
+                        .path("/{trackingId}")
+                        .buildAndExpand(status.trackingId())
+                        .toUri())
+                .body(status);
+    }
+
+    @GetMapping("async/{trackingId}")
+    public ResponseEntity<IngestionStatus> getSubmissionStatus(@PathVariable(name = "trackingId") String trackingId) {
+        return employeeIngestionService.getStatus(trackingId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    // validators on a GET 200 let Spring answer If-None-Match / If-Modified-Since with a bodyless 304; a page only
+    // gets an ETag, a deleted row would not move its newest last-modified. The body follows Accept, so does the tag
     @GetMapping
-    public List<Employee> getAllEmployees() {
-        return employeeService.getAllEmployees();
+    public ResponseEntity<EmployeePage> getAllEmployees(@RequestParam(name = "cursor", required = false) String cursor,
+                                                        @RequestParam(name = "limit", defaultValue = "50") int limit) {
+        EmployeePage page = employeeService.getEmployees(cursor, limit);
+        return ResponseEntity.ok()
+                .eTag(EmployeeETags.of(page, representation()))
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(page);
+    }
+
+    @GetMapping(params = "ids")
+    public List<EmployeeView> getEmployeesByIds(@RequestParam(name = "ids") List<Long> ids) {
+        return employeeService.getEmployeesByIds(ids);
+    }
+
+    @GetMapping("search")
+    public EmployeeSearchPage searchEmployees(@RequestParam(name = "q") String query,
+                                              @RequestParam(name = "page", defaultValue = "0") int page,
+                                              @RequestParam(name = "size", defaultValue = "20") int size) {
+        return employeeService.searchEmployees(query, page, size);
+    }
+
+    @GetMapping(params = "email")
+    public ResponseEntity<Employee> getEmployeeByEmail(@RequestParam(name = "email") String email) {
+        return employeeService.getEmployeeByEmail(email)
+                .map(EmployeeController::okWithValidators)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @GetMapping(value = "export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportEmployees() {
+        StreamingResponseBody body = outputStream -> employeeService.exportEmployees(employee -> {
+            try {
+                outputStream.write(employeeWriter.writeValueAsBytes(employee));
+                outputStream.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
     }
 
     @GetMapping("{id}")
     public ResponseEntity<Employee> getEmployeeById(@PathVariable(name = "id") long employeeId) {
         return employeeService.getEmployeeById(employeeId)
-                .map(ResponseEntity::ok)
+                .map(EmployeeController::okWithValidators)
                 .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
     @PutMapping("{id}")
     public ResponseEntity<Employee> updateEmployee(@PathVariable(value = "id") long employeeId,
-                                                   @RequestBody Employee employee) {
+                                                   @RequestBody Employee employee,
+                                                   @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
 
         return employeeService.getEmployeeById(employeeId)
                 .map(savedEmployee -> {
-                   savedEmployee.setFirstName(employee.getFirstName());
-                   savedEmployee.setLastName(employee.getLastName());
-                   savedEmployee.setEmail(employee.getEmail());
+                   Long expectedVersion = ifMatch != null ? requireMatch(ifMatch, savedEmployee)
+                           : employee.getVersion() != null ? employee.getVersion() : savedEmployee.getVersion();
 
-                   Employee updatedEmployee = employeeService.updateEmployee(savedEmployee);
-                   return new ResponseEntity<>(updatedEmployee, HttpStatus.OK);
+                   // build a new instance, the one returned by getEmployeeById may be shared through the cache
+                   Employee employeeToUpdate = Employee.builder()
+                           .id(savedEmployee.getId())
+                           .firstName(employee.getFirstName())
+                           .lastName(employee.getLastName())
+                           .email(employee.getEmail())
+                           .version(expectedVersion)
+                           .build();
+
+                   Employee updatedEmployee = preconditioned(ifMatch, () -> employeeService.updateEmployee(employeeToUpdate));
+                   return okWithValidators(updatedEmployee);
                 })
                 .orElseGet(() -> ResponseEntity.notFound().build());
 
     }
 
+    @PatchMapping("{id}")
+    public ResponseEntity<Void> patchEmployee(@PathVariable(value = "id") long employeeId,
+                                              @RequestBody Employee employee,
+                                              @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+
+        if (ifMatch != null) {
+            Optional<Employee> savedEmployee = employeeService.getEmployeeById(employeeId);
+            if (savedEmployee.isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+            employee.setVersion(requireMatch(ifMatch, savedEmployee.get()));
+        }
+
+        return preconditioned(ifMatch, () -> employeeService.patchEmployee(employeeId, employee))
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.notFound().build();
+    }
+
     @DeleteMapping("{id}")
-    public ResponseEntity<String> deleteEmployee(@PathVariable(value = "id") long employeeId) {
-        employeeService.deleteEmployee(employeeId);
+    public ResponseEntity<String> deleteEmployee(@PathVariable(value = "id") long employeeId,
+                                                 @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+
+        boolean deleted;
+        if (ifMatch == null) {
+            deleted = employeeService.deleteEmployee(employeeId);
+        } else {
+            Optional<Employee> savedEmployee = employeeService.getEmployeeById(employeeId);
+            if (savedEmployee.isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+            Long version = requireMatch(ifMatch, savedEmployee.get());
+            deleted = version != null
+                    ? preconditioned(ifMatch, () -> employeeService.deleteEmployee(employeeId, version))
+                    : employeeService.deleteEmployee(employeeId);
+        }
+
+        if (!deleted) {
+            return ResponseEntity.notFound().build();
+        }
         return new ResponseEntity<>("Employee deleted successfully", HttpStatus.OK);
     }
 
+    @DeleteMapping(params = "ids")
+    public DeleteResult deleteEmployees(@RequestParam(name = "ids") List<Long> ids) {
+        return new DeleteResult(employeeService.deleteEmployees(ids));
+    }
+
+    private static ResponseEntity<Employee> okWithValidators(Employee employee) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (employee.getVersion() != null) {
+            response.eTag(EmployeeETags.of(employee.getVersion(), representation()))
+                    .varyBy(HttpHeaders.ACCEPT);
+        }
+        if (employee.getLastModified() != null) {
+            response.lastModified(employee.getLastModified());
+        }
+        return response.body(employee);
+    }
+
+    // the 304 check runs before a converter is picked, so the representation is negotiated here the same way
+    private static MediaType representation() {
+        HttpServletRequest request = ((ServletRequestAttributes) RequestContextHolder.currentRequestAttributes()).getRequest();
+        try {
+            return EmployeeETags.representationFor(ACCEPT_HEADER.resolveMediaTypes(new ServletWebRequest(request)));
+        } catch (HttpMediaTypeNotAcceptableException e) {
+            return MediaType.APPLICATION_JSON;
+        }
+    }
+
+    /**
+     * Checks {@code If-Match} against the current representation and returns the version the write must still find.
+     */
+    private static Long requireMatch(String ifMatch, Employee savedEmployee) {
+        if (!EmployeeETags.matches(ifMatch, savedEmployee.getVersion())) {
+            throw new PreconditionFailedException("Employee does not match If-Match:" + ifMatch);
+        }
+        return savedEmployee.getVersion();
+    }
+
+    // with If-Match, losing the race to another writer is a failed precondition rather than a conflict
+    private static <T> T preconditioned(String ifMatch, Supplier<T> write) {
+        try {
+            return write.get();
+        } catch (ResourceConflictException e) {
+            if (ifMatch == null) {
+                throw e;
+            }
+            throw new PreconditionFailedException("Employee does not match If-Match:" + ifMatch, e);
+        }
+    }
+
 //    @RunWith(MockitoJUnitRunner.class)
 //    public class MyControllerTest {
 //
@@ -0,0 +1,7 @@
+package io.todimu.springboottesting.dto;
+
+/**
+ * Outcome of a bulk delete: how many rows were actually removed.
+ */
+public record DeleteResult(int deleted) {
+}
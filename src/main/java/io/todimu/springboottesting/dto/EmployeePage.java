@@ -0,0 +1,10 @@
+package io.todimu.springboottesting.dto;
+
+import java.util.List;
+
+/**
+ * One keyset page of employees. {@code nextCursor} is an opaque token to pass back as
+ * {@code cursor} for the following page, or {@code null} when there are no more rows.
+ */
+public record EmployeePage(List<EmployeeView> employees, String nextCursor) {
+}
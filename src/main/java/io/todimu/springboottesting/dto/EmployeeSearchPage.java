@@ -0,0 +1,9 @@
+package io.todimu.springboottesting.dto;
+
+import java.util.List;
+
+/**
+ * One page of ranked search hits, best match first. {@code total} counts every match, not just this page.
+ */
+public record EmployeeSearchPage(List<EmployeeView> employees, long total, int page, int size) {
+}
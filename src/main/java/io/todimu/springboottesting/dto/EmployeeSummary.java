@@ -0,0 +1,22 @@
+package io.todimu.springboottesting.dto;
+
+import java.time.Instant;
+
+/**
+ * Interface projection of an employee for native queries, which cannot use a JPQL constructor expression. Spring Data
+ * backs it with the result tuple, matched by column alias, so no entity is managed or snapshotted.
+ */
+public interface EmployeeSummary {
+
+    Long getId();
+
+    String getFirstName();
+
+    String getLastName();
+
+    String getEmail();
+
+    Long getVersion();
+
+    Instant getLastModified();
+}
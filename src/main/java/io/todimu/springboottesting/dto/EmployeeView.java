@@ -0,0 +1,17 @@
+package io.todimu.springboottesting.dto;
+
+import io.todimu.springboottesting.model.Employee;
+
+import java.time.Instant;
+
+/**
+ * Read-only projection of an employee with the same JSON shape as the entity. Selected straight into this record by
+ * JPQL constructor expressions, so Hibernate neither manages the row nor keeps a dirty-checking snapshot of it.
+ */
+public record EmployeeView(long id, String firstName, String lastName, String email, Long version, Instant lastModified) {
+
+    public static EmployeeView from(Employee employee) {
+        return new EmployeeView(employee.getId(), employee.getFirstName(), employee.getLastName(), employee.getEmail(),
+                employee.getVersion(), employee.getLastModified());
+    }
+}
@@ -0,0 +1,33 @@
+package io.todimu.springboottesting.dto;
+
+import java.time.Instant;
+
+/**
+ * Where an asynchronously submitted employee stands. {@code employeeId} is set once it is {@code CREATED},
+ * {@code error} once it has {@code FAILED}, as one of the error codes below rather than an exception message.
+ */
+public record IngestionStatus(String trackingId, State state, Long employeeId, String error,
+                              Instant submittedAt, Instant completedAt) {
+
+    public static final String DUPLICATE_EMAIL = "DUPLICATE_EMAIL";
+
+    public static final String INVALID_EMPLOYEE = "INVALID_EMPLOYEE";
+
+    public static final String SHUT_DOWN = "SHUT_DOWN";
+
+    public static final String INTERNAL_ERROR = "INTERNAL_ERROR";
+
+    public enum State { QUEUED, CREATED, FAILED }
+
+    public static IngestionStatus queued(String trackingId, Instant submittedAt) {
+        return new IngestionStatus(trackingId, State.QUEUED, null, null, submittedAt, null);
+    }
+
+    public IngestionStatus created(long employeeId) {
+        return new IngestionStatus(trackingId, State.CREATED, employeeId, null, submittedAt, Instant.now());
+    }
+
+    public IngestionStatus failed(String error) {
+        return new IngestionStatus(trackingId, State.FAILED, null, error, submittedAt, Instant.now());
+    }
+}
@@ -2,6 +2,9 @@ package io.todimu.springboottesting.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.Instant;
 
 @Getter
 @Setter
@@ -9,12 +12,18 @@ import lombok.*;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "employee")
+@Table(name = "employee",
+        uniqueConstraints = @UniqueConstraint(name = Employee.EMAIL_CONSTRAINT, columnNames = "email"),
+        indexes = @Index(name = "idx_employee_name", columnList = "first_name, last_name"))
 
 public class Employee {
 
+    public static final String EMAIL_CONSTRAINT = "uk_employee_email";
+
+    // pooled sequence ids keep inserts batchable, IDENTITY forces one round trip per row
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "employee_seq")
+    @SequenceGenerator(name = "employee_seq", sequenceName = "employee_seq", allocationSize = 50)
     private long id;
 
     @Column(name = "first_name", nullable = false)
@@ -25,4 +34,14 @@ public class Employee {
 
     @Column(name = "email", nullable = false)
     private String email;
+
+    // null only until the first persist, the column itself is not null
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    // set on insert and on every update, bulk updates set it explicitly; backs Last-Modified / If-Modified-Since
+    @UpdateTimestamp
+    @Column(name = "last_modified")
+    private Instant lastModified;
 }
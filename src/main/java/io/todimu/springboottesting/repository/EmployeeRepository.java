@@ -1,27 +1,109 @@
 package io.todimu.springboottesting.repository;
 
+import io.todimu.springboottesting.dto.EmployeeSummary;
+import io.todimu.springboottesting.dto.EmployeeView;
 import io.todimu.springboottesting.model.Employee;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface EmployeeRepository extends JpaRepository<Employee, Long> {
 
+    // declared query methods get no transaction from SimpleJpaRepository, the service calls this outside of one
+    @Transactional(readOnly = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
     Optional<Employee> findByEmail(String email);
 
+    @Query("select e.email from Employee e where e.email in :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    // keyset page: seeks past the last seen id on the primary key, so the cost does not grow with the offset
+    @Transactional(readOnly = true)
+    @Query("select new io.todimu.springboottesting.dto.EmployeeView(e.id, e.firstName, e.lastName, e.email, e.version, e.lastModified) " +
+            "from Employee e where e.id > :id order by e.id")
+    List<EmployeeView> findViewsByIdGreaterThan(@Param("id") long id, Pageable pageable);
+
+    // read-only so the parallel chunk lookups, which run outside the caller's transaction, can still go to a replica
+    @Transactional(readOnly = true)
+    @Query("select new io.todimu.springboottesting.dto.EmployeeView(e.id, e.firstName, e.lastName, e.email, e.version, e.lastModified) " +
+            "from Employee e where e.id in :ids")
+    List<EmployeeView> findViewsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Transactional(readOnly = true)
+    @Query("select new io.todimu.springboottesting.dto.EmployeeView(e.id, e.firstName, e.lastName, e.email, e.version, e.lastModified) " +
+            "from Employee e")
+    List<EmployeeView> findAllViews();
+
+    // scrolls the whole table through a JDBC cursor; must be consumed inside a transaction and closed
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("select e from Employee e order by e.id")
+    Stream<Employee> streamAllByOrderByIdAsc();
+
+    // partial update in one statement: null arguments keep the current value, a null version skips the optimistic check
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Employee e set e.firstName = coalesce(:firstName, e.firstName), e.lastName = coalesce(:lastName, e.lastName), " +
+            "e.email = coalesce(:email, e.email), e.version = e.version + 1, e.lastModified = :lastModified " +
+            "where e.id = :id and (:version is null or e.version = :version)")
+    int patchEmployee(@Param("id") long id,
+                      @Param("firstName") String firstName,
+                      @Param("lastName") String lastName,
+                      @Param("email") String email,
+                      @Param("version") Long version,
+                      @Param("lastModified") Instant lastModified);
+
+    // single DELETE without loading the entity first, returns the affected row count
+    @Transactional
+    @Modifying
+    @Query("delete from Employee e where e.id = :id")
+    int deleteEmployeeById(@Param("id") long id);
+
+    // conditional delete for If-Match, 0 when the id is unknown or the version is stale
+    @Transactional
+    @Modifying
+    @Query("delete from Employee e where e.id = :id and e.version = :version")
+    int deleteEmployeeByIdAndVersion(@Param("id") long id, @Param("version") long version);
+
+    @Transactional
+    @Modifying
+    @Query("delete from Employee e where e.id in :ids")
+    int deleteEmployeesByIdIn(@Param("ids") Collection<Long> ids);
+
+    // the name lookups are projections: nothing is managed, so there is no snapshot to keep, and the default
+    // auto-flush still lets them see employees saved earlier in the same transaction
     // define custom query using JPQL with index params
-    @Query("select e from Employee e where e.firstName = ?1 and e.lastName = ?2")
-    Employee findByJPQL(String firstName, String lastName);
+    @Query("select new io.todimu.springboottesting.dto.EmployeeView(e.id, e.firstName, e.lastName, e.email, e.version, e.lastModified) " +
+            "from Employee e where e.firstName = ?1 and e.lastName = ?2")
+    EmployeeView findByJPQL(String firstName, String lastName);
 
     // define custom query using JPQL with named params
-    @Query("select e from Employee e where e.firstName = :firstName and e.lastName = :lastName")
-    Employee findByJPQLNamedParams(@Param("firstName") String firstName, @Param("lastName") String lastName);
+    @Query("select new io.todimu.springboottesting.dto.EmployeeView(e.id, e.firstName, e.lastName, e.email, e.version, e.lastModified) " +
+            "from Employee e where e.firstName = :firstName and e.lastName = :lastName")
+    EmployeeView findByJPQLNamedParams(@Param("firstName") String firstName, @Param("lastName") String lastName);
 
-    @Query(value = "select * from employee e where e.first_name = ?1 and e.last_name = ?2", nativeQuery = true)
-    Employee findByNativeSQL(String firstName, String lastName);
+    @Query(value = "select e.id as id, e.first_name as firstName, e.last_name as lastName, e.email as email, " +
+            "e.version as version, e.last_modified as lastModified from employee e " +
+            "where e.first_name = ?1 and e.last_name = ?2", nativeQuery = true)
+    EmployeeSummary findByNativeSQL(String firstName, String lastName);
 
-    @Query(value = "select * from employee e where e.first_name = :firstName and e.last_name = :lastName", nativeQuery = true)
-    Employee  findByNativeSQLNamedParams(@Param("firstName") String firstName, @Param("lastName") String lastName);
+    @Query(value = "select e.id as id, e.first_name as firstName, e.last_name as lastName, e.email as email, " +
+            "e.version as version, e.last_modified as lastModified from employee e " +
+            "where e.first_name = :firstName and e.last_name = :lastName", nativeQuery = true)
+    EmployeeSummary findByNativeSQLNamedParams(@Param("firstName") String firstName, @Param("lastName") String lastName);
 }
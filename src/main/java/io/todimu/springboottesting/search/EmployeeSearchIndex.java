@@ -0,0 +1,347 @@
+package io.todimu.springboottesting.search;
+
+import io.todimu.springboottesting.config.ReplicaRoutingContext;
+import io.todimu.springboottesting.dto.EmployeeSearchPage;
+import io.todimu.springboottesting.dto.EmployeeView;
+import io.todimu.springboottesting.repository.EmployeeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-process inverted index over first name, last name and email for type-ahead search. Terms sit in a sorted map,
+ * so a prefix is a range scan. A trigram index over the same terms finds near misses such as typos. Built from the
+ * table once the application is ready, then kept in sync by the service's write paths. Changes made inside a
+ * transaction are applied after it commits.
+ */
+@Component
+@Profile("!reactive")
+public class EmployeeSearchIndex {
+
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private static final Logger log = LoggerFactory.getLogger(EmployeeSearchIndex.class);
+
+    private static final Pattern WORD_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private static final int BUILD_BATCH_SIZE = 1000;
+
+    private static final int MIN_FUZZY_LENGTH = 3;
+
+    private static final double MIN_FUZZY_SIMILARITY = 0.45;
+
+    private static final double EXACT_SCORE = 3.0;
+
+    private static final double PREFIX_SCORE = 2.0;
+
+    private final EmployeeRepository employeeRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Long, EmployeeView> documents = new HashMap<>();
+
+    private final Map<Long, Set<String>> documentTerms = new HashMap<>();
+
+    // term -> ids of the employees carrying it
+    private final NavigableMap<String, Set<Long>> postings = new TreeMap<>();
+
+    // trigram -> terms containing it
+    private final Map<String, Set<String>> trigrams = new HashMap<>();
+
+    // ids written while a rebuild is scrolling the table: the live write is newer than whatever the scroll reads
+    private Set<Long> touchedDuringBuild;
+
+    public EmployeeSearchIndex(EmployeeRepository employeeRepository) {
+        this.employeeRepository = employeeRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long started = System.nanoTime();
+
+        withWriteLock(() -> {
+            clear();
+            touchedDuringBuild = new HashSet<>();
+        });
+
+        try {
+            long afterId = 0;
+            List<EmployeeView> batch;
+            do {
+                // replicas may lag behind or not be set up yet, the index has to start from what the primary holds
+                long from = afterId;
+                batch = ReplicaRoutingContext.onPrimary(() ->
+                        employeeRepository.findViewsByIdGreaterThan(from, PageRequest.of(0, BUILD_BATCH_SIZE)));
+                List<EmployeeView> loaded = batch;
+                withWriteLock(() -> loaded.stream()
+                        .filter(employee -> !touchedDuringBuild.contains(employee.id()))
+                        .forEach(this::put));
+                if (!batch.isEmpty()) {
+                    afterId = batch.get(batch.size() - 1).id();
+                }
+            } while (batch.size() == BUILD_BATCH_SIZE);
+        } catch (RuntimeException e) {
+            // search is not worth failing startup over, the writes keep filling in what the rebuild missed
+            log.error("Search index rebuild failed after {} employees, search results stay partial", size(), e);
+            return;
+        } finally {
+            withWriteLock(() -> touchedDuringBuild = null);
+        }
+
+        log.info("Indexed {} employees for search in {} ms", size(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    public void index(EmployeeView employee) {
+        afterCommit(() -> withWriteLock(() -> {
+            markTouched(employee.id());
+            put(employee);
+        }));
+    }
+
+    /**
+     * Applies a partial update the way the bulk patch statement does: {@code null} fields keep their value.
+     */
+    public void patch(long id, String firstName, String lastName, String email, Instant lastModified) {
+        afterCommit(() -> withWriteLock(() -> {
+            EmployeeView current = documents.get(id);
+            if (current == null) {
+                return;
+            }
+            markTouched(id);
+            put(new EmployeeView(id,
+                    firstName != null ? firstName : current.firstName(),
+                    lastName != null ? lastName : current.lastName(),
+                    email != null ? email : current.email(),
+                    current.version() != null ? current.version() + 1 : null,
+                    lastModified));
+        }));
+    }
+
+    public void remove(long id) {
+        afterCommit(() -> withWriteLock(() -> {
+            markTouched(id);
+            delete(id);
+        }));
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Every whitespace separated query token has to match a term of the employee, exactly, as a prefix or, from
+     * three characters on, fuzzily. Exact matches rank above prefixes, prefixes above fuzzy matches.
+     */
+    public EmployeeSearchPage search(String query, int page, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        int pageNumber = Math.max(0, page);
+
+        List<String> tokens = new ArrayList<>();
+        for (String token : query.toLowerCase(Locale.ROOT).trim().split("\\s+")) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        if (tokens.isEmpty()) {
+            return new EmployeeSearchPage(List.of(), 0, pageNumber, pageSize);
+        }
+
+        lock.readLock().lock();
+        try {
+            Map<Long, Double> scores = null;
+            for (String token : tokens) {
+                Map<Long, Double> tokenScores = score(token);
+                if (scores == null) {
+                    scores = tokenScores;
+                } else {
+                    scores.keySet().retainAll(tokenScores.keySet());
+                    scores.replaceAll((id, score) -> score + tokenScores.get(id));
+                }
+                if (scores.isEmpty()) {
+                    break;
+                }
+            }
+
+            Map<Long, Double> ranked = scores;
+            List<EmployeeView> hits = ranked.keySet().stream()
+                    .map(documents::get)
+                    .sorted(Comparator.comparingDouble((EmployeeView employee) -> -ranked.get(employee.id()))
+                            .thenComparing(EmployeeView::lastName, Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER))
+                            .thenComparing(EmployeeView::firstName, Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER))
+                            .thenComparingLong(EmployeeView::id))
+                    .skip((long) pageNumber * pageSize)
+                    .limit(pageSize)
+                    .toList();
+
+            return new EmployeeSearchPage(hits, ranked.size(), pageNumber, pageSize);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // best score per employee for a single query token
+    private Map<Long, Double> score(String token) {
+        Map<Long, Double> scores = new HashMap<>();
+
+        for (Map.Entry<String, Set<Long>> entry : postings.subMap(token, true, token + Character.MAX_VALUE, false).entrySet()) {
+            String term = entry.getKey();
+            // a prefix covering more of the term ranks closer to an exact hit
+            double score = term.equals(token) ? EXACT_SCORE : PREFIX_SCORE * token.length() / term.length();
+            entry.getValue().forEach(id -> scores.merge(id, score, Math::max));
+        }
+
+        if (token.length() >= MIN_FUZZY_LENGTH) {
+            Set<String> tokenTrigrams = trigramsOf(token);
+            Map<String, Integer> shared = new HashMap<>();
+            for (String trigram : tokenTrigrams) {
+                for (String term : trigrams.getOrDefault(trigram, Set.of())) {
+                    shared.merge(term, 1, Integer::sum);
+                }
+            }
+            shared.forEach((term, count) -> {
+                // Dice coefficient over trigram sets
+                double similarity = 2.0 * count / (tokenTrigrams.size() + trigramsOf(term).size());
+                if (similarity >= MIN_FUZZY_SIMILARITY) {
+                    postings.get(term).forEach(id -> scores.merge(id, similarity, Math::max));
+                }
+            });
+        }
+
+        return scores;
+    }
+
+    private void put(EmployeeView employee) {
+        delete(employee.id());
+
+        Set<String> terms = termsOf(employee);
+        documents.put(employee.id(), employee);
+        documentTerms.put(employee.id(), terms);
+        for (String term : terms) {
+            Set<Long> ids = postings.computeIfAbsent(term, key -> new HashSet<>());
+            if (ids.isEmpty()) {
+                trigramsOf(term).forEach(trigram -> trigrams.computeIfAbsent(trigram, key -> new HashSet<>()).add(term));
+            }
+            ids.add(employee.id());
+        }
+    }
+
+    private void delete(long id) {
+        documents.remove(id);
+        Set<String> terms = documentTerms.remove(id);
+        if (terms == null) {
+            return;
+        }
+
+        for (String term : terms) {
+            Set<Long> ids = postings.get(term);
+            ids.remove(id);
+            if (ids.isEmpty()) {
+                postings.remove(term);
+                for (String trigram : trigramsOf(term)) {
+                    Set<String> trigramTerms = trigrams.get(trigram);
+                    trigramTerms.remove(term);
+                    if (trigramTerms.isEmpty()) {
+                        trigrams.remove(trigram);
+                    }
+                }
+            }
+        }
+    }
+
+    private void clear() {
+        documents.clear();
+        documentTerms.clear();
+        postings.clear();
+        trigrams.clear();
+    }
+
+    private void markTouched(long id) {
+        if (touchedDuringBuild != null) {
+            touchedDuringBuild.add(id);
+        }
+    }
+
+    private void withWriteLock(Runnable action) {
+        lock.writeLock().lock();
+        try {
+            action.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    // the words of both names, the whole email and the words of its local part
+    static Set<String> termsOf(EmployeeView employee) {
+        Set<String> terms = new HashSet<>();
+        addWords(terms, employee.firstName());
+        addWords(terms, employee.lastName());
+
+        if (employee.email() != null) {
+            String email = employee.email().toLowerCase(Locale.ROOT);
+            terms.add(email);
+            int at = email.indexOf('@');
+            addWords(terms, at >= 0 ? email.substring(0, at) : email);
+        }
+        return terms;
+    }
+
+    private static void addWords(Set<String> terms, String text) {
+        if (text == null) {
+            return;
+        }
+        for (String word : WORD_SEPARATOR.split(text.toLowerCase(Locale.ROOT))) {
+            if (!word.isEmpty()) {
+                terms.add(word);
+            }
+        }
+    }
+
+    // padded so the first and last characters weigh as much as the middle ones
+    static Set<String> trigramsOf(String term) {
+        String padded = " " + term + " ";
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + 3));
+        }
+        return grams;
+    }
+}
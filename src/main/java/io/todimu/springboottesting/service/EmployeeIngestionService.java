@@ -0,0 +1,13 @@
+package io.todimu.springboottesting.service;
+
+import io.todimu.springboottesting.dto.IngestionStatus;
+import io.todimu.springboottesting.model.Employee;
+
+import java.util.Optional;
+
+public interface EmployeeIngestionService {
+
+    IngestionStatus submit(Employee employee);
+
+    Optional<IngestionStatus> getStatus(String trackingId);
+}
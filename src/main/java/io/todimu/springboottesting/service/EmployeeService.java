@@ -1,19 +1,41 @@
 package io.todimu.springboottesting.service;
 
+import io.todimu.springboottesting.dto.EmployeePage;
+import io.todimu.springboottesting.dto.EmployeeSearchPage;
+import io.todimu.springboottesting.dto.EmployeeView;
 import io.todimu.springboottesting.model.Employee;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface EmployeeService {
 
     Employee saveEmployee(Employee employee);
 
-    List<Employee> getAllEmployees();
+    List<Employee> saveEmployees(List<Employee> employees);
+
+    List<EmployeeView> getAllEmployees();
+
+    EmployeePage getEmployees(String cursor, int limit);
+
+    long exportEmployees(Consumer<Employee> sink);
 
     Optional<Employee> getEmployeeById(long id);
 
+    Optional<Employee> getEmployeeByEmail(String email);
+
+    List<EmployeeView> getEmployeesByIds(List<Long> ids);
+
+    EmployeeSearchPage searchEmployees(String query, int page, int size);
+
     Employee updateEmployee(Employee updatedEmployee);
 
-    void deleteEmployee(Long id);
+    boolean patchEmployee(long id, Employee patch);
+
+    boolean deleteEmployee(Long id);
+
+    boolean deleteEmployee(long id, long version);
+
+    int deleteEmployees(List<Long> ids);
 }
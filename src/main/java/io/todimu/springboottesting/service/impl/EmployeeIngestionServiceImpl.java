@@ -0,0 +1,246 @@
+package io.todimu.springboottesting.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.todimu.springboottesting.dto.IngestionStatus;
+import io.todimu.springboottesting.exception.ResourceConflictException;
+import io.todimu.springboottesting.exception.TooManyRequestsException;
+import io.todimu.springboottesting.model.Employee;
+import io.todimu.springboottesting.service.EmployeeIngestionService;
+import io.todimu.springboottesting.service.EmployeeService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind creation: submissions wait in a bounded queue and a single writer thread saves them in batches,
+ * one transaction per batch. When a batch fails (typically one duplicate email) it is retried row by row so only
+ * the offending submissions fail. A full queue rejects new submissions instead of growing. Outcomes are kept for a
+ * while under the tracking id handed out on submission.
+ */
+@Service
+@Profile("!reactive")
+public class EmployeeIngestionServiceImpl implements EmployeeIngestionService, SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(EmployeeIngestionServiceImpl.class);
+
+    private static final long POLL_TIMEOUT_MILLIS = 200;
+
+    private final EmployeeService employeeService;
+
+    private final BlockingQueue<Submission> queue;
+
+    private final Cache<String, IngestionStatus> statuses;
+
+    private final int batchSize;
+
+    private final Duration shutdownTimeout;
+
+    private final Counter created;
+
+    private final Counter failed;
+
+    private final Counter rejected;
+
+    private volatile boolean accepting = true;
+
+    private volatile boolean running;
+
+    private volatile Thread writer;
+
+    public EmployeeIngestionServiceImpl(EmployeeService employeeService, Environment environment, MeterRegistry meterRegistry) {
+        this.employeeService = employeeService;
+        this.queue = new ArrayBlockingQueue<>(environment.getProperty("app.ingestion.queue-capacity", Integer.class, 10_000));
+        this.batchSize = Math.min(environment.getProperty("app.ingestion.batch-size", Integer.class, 50), EmployeeServiceImpl.MAX_BATCH_SIZE);
+        this.shutdownTimeout = environment.getProperty("app.ingestion.shutdown-timeout", Duration.class, Duration.ofSeconds(30));
+        this.statuses = Caffeine.newBuilder()
+                .expireAfterWrite(environment.getProperty("app.ingestion.status-retention", Duration.class, Duration.ofHours(1)))
+                .maximumSize(environment.getProperty("app.ingestion.status-capacity", Long.class, 100_000L))
+                .build();
+
+        Gauge.builder("app.ingestion.queue.depth", queue, BlockingQueue::size)
+                .description("Employee submissions waiting to be written")
+                .register(meterRegistry);
+        this.created = submissions(meterRegistry, "created");
+        this.failed = submissions(meterRegistry, "failed");
+        this.rejected = submissions(meterRegistry, "rejected");
+    }
+
+    @Override
+    public IngestionStatus submit(Employee employee) {
+        if (!accepting) {
+            rejected.increment();
+            throw new TooManyRequestsException("Employee ingestion is not accepting submissions");
+        }
+
+        IngestionStatus status = IngestionStatus.queued(UUID.randomUUID().toString(), Instant.now());
+        // recorded before it is queued, the writer may finish it before offer returns
+        statuses.put(status.trackingId(), status);
+
+        if (!queue.offer(new Submission(status, employee))) {
+            statuses.invalidate(status.trackingId());
+            rejected.increment();
+            throw new TooManyRequestsException("Employee ingestion queue is full, retry later");
+        }
+        return status;
+    }
+
+    @Override
+    public Optional<IngestionStatus> getStatus(String trackingId) {
+        return Optional.ofNullable(statuses.getIfPresent(trackingId));
+    }
+
+    @Override
+    public void start() {
+        accepting = true;
+        running = true;
+        Thread thread = new Thread(this::drain, "employee-ingestion");
+        thread.setDaemon(true);
+        thread.start();
+        writer = thread;
+    }
+
+    @Override
+    public void stop() {
+        accepting = false;
+        running = false;
+        Thread thread = writer;
+        if (thread == null) {
+            return;
+        }
+
+        // the writer keeps going until the queue is empty, give it a bounded amount of time to do so
+        try {
+            thread.join(shutdownTimeout.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (thread.isAlive()) {
+            thread.interrupt();
+        }
+        writer = null;
+
+        List<Submission> abandoned = new ArrayList<>();
+        queue.drainTo(abandoned);
+        if (!abandoned.isEmpty()) {
+            log.warn("Shutting down with {} employee submissions not written", abandoned.size());
+            abandoned.forEach(submission -> fail(submission, IngestionStatus.SHUT_DOWN));
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // stop after the web server, so no request is left submitting into a queue nobody drains
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 2048;
+    }
+
+    private void drain() {
+        List<Submission> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Submission first = queue.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Employee ingestion batch of {} failed", batch.size(), e);
+                batch.forEach(submission -> fail(submission, IngestionStatus.INTERNAL_ERROR));
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<Submission> batch) {
+        try {
+            List<Employee> saved = employeeService.saveEmployees(batch.stream().map(Submission::newEmployee).toList());
+            for (int i = 0; i < batch.size(); i++) {
+                complete(batch.get(i), saved.get(i));
+            }
+            return;
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                fail(batch.get(0), errorCodeOf(e));
+                return;
+            }
+            log.debug("Batch of {} employees rolled back, retrying one by one", batch.size(), e);
+        }
+
+        for (Submission submission : batch) {
+            try {
+                complete(submission, employeeService.saveEmployee(submission.newEmployee()));
+            } catch (RuntimeException e) {
+                fail(submission, errorCodeOf(e));
+            }
+        }
+    }
+
+    private void complete(Submission submission, Employee employee) {
+        statuses.put(submission.status().trackingId(), submission.status().created(employee.getId()));
+        created.increment();
+    }
+
+    private void fail(Submission submission, String error) {
+        statuses.put(submission.status().trackingId(), submission.status().failed(error));
+        failed.increment();
+    }
+
+    // the status is served to clients, exception messages carry SQL and constraint details that must not leak there
+    private static String errorCodeOf(RuntimeException e) {
+        if (e instanceof ResourceConflictException) {
+            return IngestionStatus.DUPLICATE_EMAIL;
+        }
+        if (e instanceof DataIntegrityViolationException) {
+            return IngestionStatus.INVALID_EMPLOYEE;
+        }
+        log.warn("Employee submission failed", e);
+        return IngestionStatus.INTERNAL_ERROR;
+    }
+
+    private static Counter submissions(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("app.ingestion.submissions")
+                .description("Asynchronous employee submissions by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private record Submission(IngestionStatus status, Employee employee) {
+
+        // a fresh instance per attempt: a rolled back batch leaves its generated ids and versions behind
+        Employee newEmployee() {
+            return Employee.builder()
+                    .firstName(employee.getFirstName())
+                    .lastName(employee.getLastName())
+                    .email(employee.getEmail())
+                    .build();
+        }
+    }
+}
@@ -1,52 +1,382 @@
 package io.todimu.springboottesting.service.impl;
 
-import io.todimu.springboottesting.exception.ResourceNotFoundException;
+import io.micrometer.core.annotation.Timed;
+import io.todimu.springboottesting.config.CacheConfig;
+import io.todimu.springboottesting.config.ReplicaRoutingContext;
+import io.todimu.springboottesting.dto.EmployeePage;
+import io.todimu.springboottesting.dto.EmployeeSearchPage;
+import io.todimu.springboottesting.dto.EmployeeView;
+import io.todimu.springboottesting.exception.BadRequestException;
+import io.todimu.springboottesting.exception.ResourceConflictException;
 import io.todimu.springboottesting.model.Employee;
 import io.todimu.springboottesting.repository.EmployeeRepository;
+import io.todimu.springboottesting.search.EmployeeSearchIndex;
 import io.todimu.springboottesting.service.EmployeeService;
+import io.todimu.springboottesting.util.PageCursor;
+import io.todimu.springboottesting.util.SingleFlight;
+import jakarta.persistence.EntityManager;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
+@Profile("!reactive")
+@Timed(value = "employee.service", description = "EmployeeService method latency")
 public class EmployeeServiceImpl implements EmployeeService {
 
+    public static final int MAX_PAGE_SIZE = 500;
+
+    public static final int MAX_BATCH_SIZE = 5000;
+
+    public static final int MAX_IDS_PER_LOOKUP = 10_000;
+
+    static final int IN_LIST_CHUNK_SIZE = 500;
+
     private final EmployeeRepository employeeRepository;
 
-    public EmployeeServiceImpl(EmployeeRepository employeeRepository) {
+    private final EntityManager entityManager;
+
+    private final Executor lookupExecutor;
+
+    private final EmployeeSearchIndex searchIndex;
+
+    private final Cache employeeCache;
+
+    // concurrent misses for the same key share a single repository call instead of stampeding the pool
+    private final SingleFlight<Long, Optional<Employee>> employeeByIdLookups = new SingleFlight<>();
+
+    private final SingleFlight<String, Optional<Employee>> employeeByEmailLookups = new SingleFlight<>();
+
+    public EmployeeServiceImpl(EmployeeRepository employeeRepository,
+                               EntityManager entityManager,
+                               @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME) Executor lookupExecutor,
+                               EmployeeSearchIndex searchIndex,
+                               CacheManager cacheManager) {
         this.employeeRepository = employeeRepository;
+        this.entityManager = entityManager;
+        this.lookupExecutor = lookupExecutor;
+        this.searchIndex = searchIndex;
+        this.employeeCache = cacheManager.getCache(CacheConfig.EMPLOYEE_CACHE);
     }
 
     @Override
     public Employee saveEmployee(Employee employee) {
 
-        Optional<Employee> savedEmployee = employeeRepository.findByEmail(employee.getEmail());
+        // a single insert; the unique email index rejects duplicates, even between concurrent requests
+        Employee savedEmployee;
+        try {
+            savedEmployee = employeeRepository.saveAndFlush(employee);
+        } catch (DataIntegrityViolationException e) {
+            throw translateDuplicateEmail(e, employee.getEmail());
+        }
+
+        searchIndex.index(EmployeeView.from(savedEmployee));
+        return savedEmployee;
+    }
+
+    @Override
+    @Transactional
+    public List<Employee> saveEmployees(List<Employee> employees) {
+
+        if (employees.size() > MAX_BATCH_SIZE) {
+            throw new BadRequestException("Batch size exceeds the maximum of " + MAX_BATCH_SIZE + " employees");
+        }
+
+        Set<String> emails = new HashSet<>();
+        for (Employee employee : employees) {
+            if (!emails.add(employee.getEmail())) {
+                throw new ResourceConflictException("Employee already exists with given email:" + employee.getEmail());
+            }
+        }
+
+        if (emails.isEmpty()) {
+            return List.of();
+        }
+
+        // one query for the whole batch instead of a findByEmail per row
+        List<String> existingEmails = employeeRepository.findExistingEmails(emails);
+
+        if (!existingEmails.isEmpty()) {
+            throw new ResourceConflictException("Employee already exists with given email:" + String.join(",", existingEmails));
+        }
+
+        List<Employee> savedEmployees;
+        try {
+            savedEmployees = employeeRepository.saveAllAndFlush(employees);
+        } catch (DataIntegrityViolationException e) {
+            throw translateDuplicateEmail(e, String.join(",", emails));
+        }
+
+        savedEmployees.forEach(employee -> searchIndex.index(EmployeeView.from(employee)));
+        return savedEmployees;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<EmployeeView> getAllEmployees() {
+        return employeeRepository.findAllViews();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public EmployeePage getEmployees(String cursor, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        long afterId = PageCursor.decode(cursor);
+
+        // fetch one extra row to know whether another page exists without a count query
+        List<EmployeeView> employees = employeeRepository.findViewsByIdGreaterThan(afterId, PageRequest.of(0, pageSize + 1));
 
-        if (savedEmployee.isPresent()) {
-            throw new ResourceNotFoundException("Employee already exists with given email:" + employee.getEmail());
+        if (employees.size() <= pageSize) {
+            return new EmployeePage(employees, null);
         }
 
-        return employeeRepository.save(employee);
+        List<EmployeeView> page = employees.subList(0, pageSize);
+        return new EmployeePage(page, PageCursor.encode(page.get(pageSize - 1).id()));
     }
 
     @Override
-    public List<Employee> getAllEmployees() {
-        return employeeRepository.findAll();
+    @Transactional(readOnly = true)
+    public long exportEmployees(Consumer<Employee> sink) {
+        long exported = 0;
+
+        try (Stream<Employee> employees = employeeRepository.streamAllByOrderByIdAsc()) {
+            Iterator<Employee> iterator = employees.iterator();
+            while (iterator.hasNext()) {
+                Employee employee = iterator.next();
+                sink.accept(employee);
+                // keep the persistence context empty so memory stays flat however many rows are scrolled
+                entityManager.detach(employee);
+                exported++;
+            }
+        }
+
+        return exported;
     }
 
+    // no transaction here: callers waiting on a shared lookup would each hold a pooled connection for nothing, only
+    // the leader's repository call opens one (read-only, from the repository's own @Transactional)
     @Override
     public Optional<Employee> getEmployeeById(long id) {
-        return employeeRepository.findById(id);
+        Employee cached = employeeCache.get(id, Employee.class);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
+        // the result is cached for minutes, so it must not come from a replica that is lagging behind; it is cached
+        // from inside the flight, so a write that lands while it loads can still keep it out (see invalidateLookups)
+        return employeeByIdLookups.execute(id,
+                () -> ReplicaRoutingContext.onPrimary(() -> employeeRepository.findById(id)),
+                employee -> employee.ifPresent(found -> employeeCache.put(id, found)));
+    }
+
+    @Override
+    public Optional<Employee> getEmployeeByEmail(String email) {
+        return employeeByEmailLookups.execute(email, () -> employeeRepository.findByEmail(email));
     }
 
     @Override
+    public List<EmployeeView> getEmployeesByIds(List<Long> ids) {
+
+        Set<Long> distinctIds = new LinkedHashSet<>(ids);
+
+        if (distinctIds.size() > MAX_IDS_PER_LOOKUP) {
+            throw new BadRequestException("Lookup exceeds the maximum of " + MAX_IDS_PER_LOOKUP + " ids");
+        }
+
+        List<List<Long>> chunks = partition(distinctIds);
+
+        Map<Long, EmployeeView> employeesById = new HashMap<>(distinctIds.size() * 2);
+
+        if (chunks.size() == 1) {
+            employeeRepository.findViewsByIdIn(chunks.get(0)).forEach(employee -> employeesById.put(employee.id(), employee));
+        } else {
+            // bounded IN lists keep each statement cheap to plan, running them side by side keeps latency flat
+            List<CompletableFuture<List<EmployeeView>>> lookups = chunks.stream()
+                    .map(idChunk -> CompletableFuture.supplyAsync(() -> employeeRepository.findViewsByIdIn(idChunk), lookupExecutor))
+                    .toList();
+            lookups.forEach(lookup -> lookup.join().forEach(employee -> employeesById.put(employee.id(), employee)));
+        }
+
+        // answer in the order the ids were requested, silently skipping unknown ones
+        List<EmployeeView> employees = new ArrayList<>(employeesById.size());
+        for (Long id : distinctIds) {
+            EmployeeView employee = employeesById.get(id);
+            if (employee != null) {
+                employees.add(employee);
+            }
+        }
+        return employees;
+    }
+
+    @Override
+    public EmployeeSearchPage searchEmployees(String query, int page, int size) {
+        if (query == null || query.isBlank()) {
+            throw new BadRequestException("Search query must not be blank");
+        }
+        return searchIndex.search(query, page, size);
+    }
+
+    @Override
+    @Caching(
+            evict = @CacheEvict(cacheNames = CacheConfig.EMPLOYEE_CACHE, key = "#updatedEmployee.id", beforeInvocation = true),
+            put = @CachePut(cacheNames = CacheConfig.EMPLOYEE_CACHE, key = "#result.id")
+    )
     public Employee updateEmployee(Employee updatedEmployee) {
-        return employeeRepository.save(updatedEmployee);
+        Employee savedEmployee;
+        try {
+            savedEmployee = employeeRepository.save(updatedEmployee);
+        } catch (OptimisticLockingFailureException e) {
+            throw new ResourceConflictException("Employee was modified concurrently, expected version:" + updatedEmployee.getVersion(), e);
+        } catch (DataIntegrityViolationException e) {
+            throw translateDuplicateEmail(e, updatedEmployee.getEmail());
+        }
+
+        invalidateLookups(savedEmployee.getId());
+        searchIndex.index(EmployeeView.from(savedEmployee));
+        return savedEmployee;
     }
 
     @Override
-    public void deleteEmployee(Long id) {
-        employeeRepository.deleteById(id);
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.EMPLOYEE_CACHE, key = "#id")
+    public boolean patchEmployee(long id, Employee patch) {
+
+        Instant lastModified = Instant.now();
+        int updated;
+        try {
+            updated = employeeRepository.patchEmployee(id, patch.getFirstName(), patch.getLastName(), patch.getEmail(), patch.getVersion(), lastModified);
+        } catch (DataIntegrityViolationException e) {
+            throw translateDuplicateEmail(e, patch.getEmail());
+        }
+
+        if (updated > 0) {
+            invalidateLookups(id);
+            searchIndex.patch(id, patch.getFirstName(), patch.getLastName(), patch.getEmail(), lastModified);
+            return true;
+        }
+
+        // nothing matched: only pay for the extra lookup on the failure path to tell a stale version from a missing row
+        if (patch.getVersion() != null && employeeRepository.existsById(id)) {
+            throw new ResourceConflictException("Employee was modified concurrently, expected version:" + patch.getVersion());
+        }
+        return false;
+    }
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.EMPLOYEE_CACHE, key = "#id")
+    public boolean deleteEmployee(Long id) {
+        if (employeeRepository.deleteEmployeeById(id) > 0) {
+            invalidateLookups(id);
+            searchIndex.remove(id);
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.EMPLOYEE_CACHE, key = "#id")
+    public boolean deleteEmployee(long id, long version) {
+
+        if (employeeRepository.deleteEmployeeByIdAndVersion(id, version) > 0) {
+            invalidateLookups(id);
+            searchIndex.remove(id);
+            return true;
+        }
+
+        if (employeeRepository.existsById(id)) {
+            throw new ResourceConflictException("Employee was modified concurrently, expected version:" + version);
+        }
+        return false;
+    }
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.EMPLOYEE_CACHE, allEntries = true)
+    public int deleteEmployees(List<Long> ids) {
+
+        Set<Long> distinctIds = new LinkedHashSet<>(ids);
+
+        if (distinctIds.size() > MAX_IDS_PER_LOOKUP) {
+            throw new BadRequestException("Delete exceeds the maximum of " + MAX_IDS_PER_LOOKUP + " ids");
+        }
+
+        // one set-based statement per chunk, each in its own short transaction so row locks are not held across chunks
+        int deleted = 0;
+        for (List<Long> chunk : partition(distinctIds)) {
+            deleted += employeeRepository.deleteEmployeesByIdIn(chunk);
+            chunk.forEach(this::invalidateLookups);
+            chunk.forEach(searchIndex::remove);
+        }
+        return deleted;
+    }
+
+    // a lookup still loading may have read the row before this write, it must not cache it afterwards; runs once the
+    // write is committed, and the write's own cache annotations apply after that (they wrap the transaction, see CacheConfig)
+    private void invalidateLookups(long id) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    employeeByIdLookups.invalidate(id);
+                }
+            });
+        } else {
+            employeeByIdLookups.invalidate(id);
+        }
+    }
+
+    static List<List<Long>> partition(Collection<Long> ids) {
+        List<List<Long>> chunks = new ArrayList<>();
+        List<Long> chunk = new ArrayList<>(IN_LIST_CHUNK_SIZE);
+        for (Long id : ids) {
+            chunk.add(id);
+            if (chunk.size() == IN_LIST_CHUNK_SIZE) {
+                chunks.add(chunk);
+                chunk = new ArrayList<>(IN_LIST_CHUNK_SIZE);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            chunks.add(chunk);
+        }
+        return chunks;
+    }
+
+    private static RuntimeException translateDuplicateEmail(DataIntegrityViolationException e, String email) {
+        if (e.getCause() instanceof ConstraintViolationException violation
+                && violation.getConstraintName() != null
+                && violation.getConstraintName().toLowerCase(Locale.ROOT).contains(Employee.EMAIL_CONSTRAINT)) {
+            return new ResourceConflictException("Employee already exists with given email:" + email, e);
+        }
+        return e;
     }
 }
@@ -0,0 +1,101 @@
+package io.todimu.springboottesting.util;
+
+import io.todimu.springboottesting.config.BinaryFormatsConfig;
+import io.todimu.springboottesting.dto.EmployeePage;
+import io.todimu.springboottesting.dto.EmployeeView;
+import org.springframework.http.MediaType;
+import org.springframework.util.DigestUtils;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Strong entity tags computed from the version column, so conditional requests are answered without serializing
+ * the body. A single employee's tag is its version, a page's tag is a digest over the ids and versions on it; both
+ * end in the representation (JSON, CBOR or Smile), as each encoding of the same version is a different body.
+ */
+public final class EmployeeETags {
+
+    // in the order the message converters prefer them, JSON first
+    private static final Map<MediaType, String> REPRESENTATIONS = new LinkedHashMap<>();
+
+    static {
+        REPRESENTATIONS.put(MediaType.APPLICATION_JSON, "json");
+        REPRESENTATIONS.put(MediaType.APPLICATION_CBOR, "cbor");
+        REPRESENTATIONS.put(BinaryFormatsConfig.APPLICATION_SMILE, "smile");
+    }
+
+    private EmployeeETags() {
+    }
+
+    /**
+     * The representation a request gets for its {@code Accept} media types, most preferred first: the first one of
+     * JSON, CBOR or Smile that is acceptable, JSON when none is.
+     */
+    public static MediaType representationFor(List<MediaType> acceptable) {
+        for (MediaType accepted : acceptable) {
+            for (MediaType representation : REPRESENTATIONS.keySet()) {
+                if (accepted.isCompatibleWith(representation)) {
+                    return representation;
+                }
+            }
+        }
+        return MediaType.APPLICATION_JSON;
+    }
+
+    public static String of(Long version, MediaType representation) {
+        return version != null ? tag(String.valueOf(version), representation) : null;
+    }
+
+    public static String of(EmployeePage page, MediaType representation) {
+        ByteBuffer buffer = ByteBuffer.allocate(page.employees().size() * 2 * Long.BYTES);
+        for (EmployeeView employee : page.employees()) {
+            buffer.putLong(employee.id());
+            buffer.putLong(employee.version() != null ? employee.version() : -1L);
+        }
+        String digest = DigestUtils.md5DigestAsHex(buffer.array());
+        if (page.nextCursor() != null) {
+            digest = DigestUtils.md5DigestAsHex((digest + page.nextCursor()).getBytes(StandardCharsets.UTF_8));
+        }
+        return tag(digest, representation);
+    }
+
+    /**
+     * Strong comparison of an {@code If-Match} header against the current version: {@code *} matches anything,
+     * weak tags never match. A write replaces the employee whatever encoding the caller read it in, so a tag of any
+     * representation matches, as does a bare quoted version.
+     */
+    public static boolean matches(String ifMatch, Long version) {
+        if ("*".equals(ifMatch.trim())) {
+            return true;
+        }
+
+        if (version == null) {
+            return false;
+        }
+
+        String current = String.valueOf(version);
+        for (String tag : ifMatch.split(",")) {
+            if (current.equals(versionOf(tag.trim()))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String tag(String value, MediaType representation) {
+        return "\"" + value + "-" + REPRESENTATIONS.getOrDefault(representation, "json") + "\"";
+    }
+
+    private static String versionOf(String tag) {
+        if (tag.length() < 2 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+            return null;
+        }
+        String value = tag.substring(1, tag.length() - 1);
+        int representation = value.indexOf('-');
+        return representation < 0 ? value : value.substring(0, representation);
+    }
+}
@@ -0,0 +1,89 @@
+package io.todimu.springboottesting.util;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent calls for the same key: the first caller runs the loader, every caller that
+ * arrives while it is still in flight waits for it and gets the same result (or the same exception).
+ * Nothing is remembered once the call completes, caching is left to the caller: a result handed to
+ * {@code publish} is withheld if the key was {@linkplain #invalidate(Object) invalidated} while loading.
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, Call<V>> inFlight = new ConcurrentHashMap<>();
+
+    public V execute(K key, Supplier<V> loader) {
+        return execute(key, loader, value -> {});
+    }
+
+    public V execute(K key, Supplier<V> loader, Consumer<V> publish) {
+        Call<V> call = new Call<>();
+        Call<V> existing = inFlight.putIfAbsent(key, call);
+
+        if (existing != null) {
+            return await(existing);
+        }
+
+        try {
+            V value = loader.get();
+            call.publish(value, publish);
+            call.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, call);
+        }
+    }
+
+    /**
+     * Detaches the call in flight for the key, if any: its result is still returned to the callers already
+     * waiting on it, but not published, and the next caller starts a load of its own.
+     */
+    public void invalidate(K key) {
+        Call<V> call = inFlight.remove(key);
+        if (call != null) {
+            call.invalidate();
+        }
+    }
+
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+
+    private static <V> V await(CompletableFuture<V> call) {
+        try {
+            return call.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    // publishing and invalidating lock the call, so a result is either published before an invalidation or not at all
+    private static class Call<V> extends CompletableFuture<V> {
+
+        private boolean invalidated;
+
+        synchronized void publish(V value, Consumer<V> publish) {
+            if (!invalidated) {
+                publish.accept(value);
+            }
+        }
+
+        synchronized void invalidate() {
+            invalidated = true;
+        }
+    }
+}
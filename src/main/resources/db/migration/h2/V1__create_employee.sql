@@ -0,0 +1,12 @@
+create sequence employee_seq start with 1 increment by 50;
+
+create table employee (
+    id bigint not null,
+    first_name varchar(255) not null,
+    last_name varchar(255) not null,
+    email varchar(255) not null,
+    version bigint,
+    last_modified timestamp(6),
+    primary key (id),
+    constraint uk_employee_email unique (email)
+);
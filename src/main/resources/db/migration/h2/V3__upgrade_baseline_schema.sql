@@ -0,0 +1,17 @@
+-- a database created by the former ddl-auto=update from the original entity is baselined at V1 without matching it:
+-- IDENTITY ids, no version or last_modified column, no id sequence and no unique email. Every step is guarded, on a
+-- database that V1 created it changes nothing. Duplicate emails have to be cleaned up before the constraint applies.
+create sequence if not exists employee_seq start with 1 increment by 50;
+
+-- the pooled generator hands out the 50 ids below the value it reads: start above every existing id, never go back
+alter sequence employee_seq restart with (
+    select greatest(s.base_value, (select coalesce(max(e.id), 0) + 50 from employee e))
+    from information_schema.sequences s
+    where lower(s.sequence_name) = 'employee_seq'
+);
+
+alter table employee add column if not exists version bigint default 0 not null;
+
+alter table employee add column if not exists last_modified timestamp(6);
+
+alter table employee add constraint if not exists uk_employee_email unique (email);
@@ -0,0 +1,7 @@
+-- V1 left version nullable: a row without one is taken for a new entity, so PUT tries to insert it, and PATCH's
+-- version = version + 1 keeps it null
+update employee set version = 0 where version is null;
+
+alter table employee alter column version set default 0;
+
+alter table employee alter column version set not null;
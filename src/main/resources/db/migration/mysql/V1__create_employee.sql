@@ -0,0 +1,17 @@
+-- MySQL has no sequences, Hibernate keeps the pooled id allocation in a single-row table instead
+create table employee_seq (
+    next_val bigint
+) engine=InnoDB;
+
+insert into employee_seq (next_val) values (1);
+
+create table employee (
+    id bigint not null,
+    first_name varchar(255) not null,
+    last_name varchar(255) not null,
+    email varchar(255) not null,
+    version bigint,
+    last_modified datetime(6),
+    primary key (id),
+    constraint uk_employee_email unique (email)
+) engine=InnoDB;
@@ -0,0 +1,2 @@
+-- findByJPQL / findByNativeSQL and their named-parameter variants look employees up by first and last name
+create index idx_employee_name on employee (first_name, last_name);
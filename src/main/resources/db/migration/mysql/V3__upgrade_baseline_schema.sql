@@ -0,0 +1,37 @@
+-- a database created by the former ddl-auto=update from the original entity is baselined at V1 without matching it:
+-- AUTO_INCREMENT ids, no version or last_modified column, no id table and no unique email. Every step is guarded, on
+-- a database that V1 created it changes nothing. Duplicate emails have to be cleaned up before the constraint applies.
+create table if not exists employee_seq (
+    next_val bigint
+) engine=InnoDB;
+
+insert into employee_seq (next_val)
+select 1 from dual where not exists (select * from employee_seq);
+
+-- the pooled generator hands out the 50 ids below the value it reads: start above every existing id, never go back
+update employee_seq set next_val = greatest(next_val, (select coalesce(max(id), 0) + 50 from employee));
+
+-- MySQL has no ADD COLUMN IF NOT EXISTS, each change is prepared only when information_schema says it is missing
+set @ddl = if((select count(*) from information_schema.columns
+               where table_schema = database() and table_name = 'employee' and column_name = 'version') = 0,
+              'alter table employee add column version bigint not null default 0',
+              'do 0');
+prepare upgrade from @ddl;
+execute upgrade;
+deallocate prepare upgrade;
+
+set @ddl = if((select count(*) from information_schema.columns
+               where table_schema = database() and table_name = 'employee' and column_name = 'last_modified') = 0,
+              'alter table employee add column last_modified datetime(6)',
+              'do 0');
+prepare upgrade from @ddl;
+execute upgrade;
+deallocate prepare upgrade;
+
+set @ddl = if((select count(*) from information_schema.statistics
+               where table_schema = database() and table_name = 'employee' and index_name = 'uk_employee_email') = 0,
+              'alter table employee add constraint uk_employee_email unique (email)',
+              'do 0');
+prepare upgrade from @ddl;
+execute upgrade;
+deallocate prepare upgrade;
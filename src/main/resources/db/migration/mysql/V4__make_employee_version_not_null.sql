@@ -0,0 +1,5 @@
+-- V1 left version nullable: a row without one is taken for a new entity, so PUT tries to insert it, and PATCH's
+-- version = version + 1 keeps it null
+update employee set version = 0 where version is null;
+
+alter table employee modify column version bigint not null default 0;
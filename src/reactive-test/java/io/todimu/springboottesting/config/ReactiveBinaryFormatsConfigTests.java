@@ -0,0 +1,87 @@
+package io.todimu.springboottesting.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.todimu.springboottesting.model.Employee;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.EncoderHttpMessageWriter;
+import org.springframework.http.codec.HttpMessageWriter;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.http.codec.cbor.Jackson2CborDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+public class ReactiveBinaryFormatsConfigTests {
+
+    private static final ResolvableType EMPLOYEE = ResolvableType.forClass(Employee.class);
+
+    private ServerCodecConfigurer configurer;
+
+    private ObjectMapper cborMapper;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setup() {
+        ObjectProvider<Jackson2ObjectMapperBuilder> builder = mock(ObjectProvider.class);
+        given(builder.getObject()).willAnswer(invocation -> Jackson2ObjectMapperBuilder.json());
+
+        configurer = ServerCodecConfigurer.create();
+        new ReactiveBinaryFormatsConfig().binaryFormatsCodecCustomizer(builder, new ObjectMapper()).customize(configurer);
+        cborMapper = BinaryFormatsConfig.cborMapper(builder);
+    }
+
+    @Test
+    @DisplayName("JSON is the first writer for an employee, so it is what a caller without Accept gets")
+    public void givenBinaryCodecs_whenFirstWriterForEmployee_thenJson() {
+
+        // when - action or behaviour
+        HttpMessageWriter<?> writer = configurer.getWriters().stream()
+                .filter(candidate -> candidate.canWrite(EMPLOYEE, null))
+                .findFirst()
+                .orElseThrow();
+
+        // then - verify output
+        assertThat(((EncoderHttpMessageWriter<?>) writer).getEncoder()).isInstanceOf(Jackson2JsonEncoder.class);
+        assertThat(writer.getWritableMediaTypes()).doesNotContain(MediaType.APPLICATION_CBOR);
+    }
+
+    @Test
+    @DisplayName("CBOR writes a single employee and a stream of them")
+    public void givenCborEncoder_whenEncodeMonoAndFlux_thenDecodesBack() {
+
+        // given - precondition or setup
+        ReactiveBinaryFormatsConfig.CborEncoder encoder = new ReactiveBinaryFormatsConfig.CborEncoder(cborMapper);
+        Jackson2CborDecoder decoder = new Jackson2CborDecoder(cborMapper, MediaType.APPLICATION_CBOR);
+        Employee todimu = Employee.builder().id(1L).firstName("Todimu").lastName("Isewon").email("todimu@gmail.com").build();
+        Employee lani = Employee.builder().id(2L).firstName("Lani").lastName("Isewon").email("lani@gmail.com").build();
+
+        // when - action or behaviour
+        DataBuffer single = encoder.encode(Mono.just(todimu), DefaultDataBufferFactory.sharedInstance, EMPLOYEE,
+                MediaType.APPLICATION_CBOR, Collections.emptyMap()).single().block();
+        DataBuffer stream = encoder.encode(Flux.just(todimu, lani), DefaultDataBufferFactory.sharedInstance, EMPLOYEE,
+                MediaType.APPLICATION_CBOR, Collections.emptyMap()).single().block();
+
+        // then - verify output
+        Employee decoded = (Employee) decoder.decode(single, EMPLOYEE, MediaType.APPLICATION_CBOR, Collections.emptyMap());
+        @SuppressWarnings("unchecked")
+        List<Employee> decodedList = (List<Employee>) decoder.decode(stream,
+                ResolvableType.forClassWithGenerics(List.class, Employee.class), MediaType.APPLICATION_CBOR, Collections.emptyMap());
+        assertThat(decoded.getEmail()).isEqualTo("todimu@gmail.com");
+        assertThat(decodedList).extracting(Employee::getEmail).containsExactly("todimu@gmail.com", "lani@gmail.com");
+    }
+}
@@ -0,0 +1,148 @@
+package io.todimu.springboottesting.integration;
+
+import io.todimu.springboottesting.dto.DeleteResult;
+import io.todimu.springboottesting.dto.EmployeeView;
+import io.todimu.springboottesting.model.Employee;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The WebFlux routes over R2DBC against an in-memory H2 database that Flyway migrates through JDBC; r2dbc-h2 runs H2
+ * in this JVM, so both reach the same database.
+ */
+@SpringBootTest(properties = {
+        "spring.r2dbc.url=r2dbc:h2:mem:///reactive-routes" + ReactiveEmployeeControllerITests.H2_SETTINGS,
+        "spring.r2dbc.username=sa",
+        "spring.r2dbc.password=",
+        "spring.flyway.url=jdbc:h2:mem:reactive-routes" + ReactiveEmployeeControllerITests.H2_SETTINGS
+})
+@AutoConfigureWebTestClient
+@ActiveProfiles("reactive")
+public class ReactiveEmployeeControllerITests {
+
+    static final String H2_SETTINGS = ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    @Autowired private WebTestClient webTestClient;
+
+    @Test
+    @DisplayName("batch create, lookups by ids and by name, patch and bulk delete")
+    public void givenBatchOfEmployees_whenUsingBulkRoutes_thenEachRouteSeesTheOthersWrites() {
+
+        // given - precondition or setup
+        List<Employee> created = webTestClient.post().uri("/api/employees/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(List.of(employee("Todimu", "todimu@batch.io"), employee("Lani", "lani@batch.io")))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(new ParameterizedTypeReference<List<Employee>>() {})
+                .returnResult().getResponseBody();
+        assertThat(created).hasSize(2);
+        long todimu = created.get(0).getId();
+        long lani = created.get(1).getId();
+
+        // when - action or behaviour
+        webTestClient.patch().uri("/api/employees/{id}", lani)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Employee.builder().firstName("Olanike").version(0L).build())
+                .exchange()
+                .expectStatus().isNoContent();
+
+        List<EmployeeView> byIds = webTestClient.get().uri("/api/employees?ids={ids}", lani + "," + todimu + ",-1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(new ParameterizedTypeReference<List<EmployeeView>>() {})
+                .returnResult().getResponseBody();
+
+        Employee byName = webTestClient.get().uri("/api/employees?firstName=Olanike&lastName=Isewon")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(Employee.class)
+                .returnResult().getResponseBody();
+
+        DeleteResult deleted = webTestClient.delete().uri("/api/employees?ids={ids}", todimu + "," + lani)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(DeleteResult.class)
+                .returnResult().getResponseBody();
+
+        // then - verify output
+        assertThat(byIds).extracting(EmployeeView::id).containsExactly(lani, todimu);
+        assertThat(byIds.get(0).firstName()).isEqualTo("Olanike");
+        assertThat(byIds.get(0).email()).isEqualTo("lani@batch.io");
+        assertThat(byIds.get(0).version()).isEqualTo(1L);
+        assertThat(byName).isNotNull();
+        assertThat(byName.getId()).isEqualTo(lani);
+        assertThat(deleted).isEqualTo(new DeleteResult(2));
+    }
+
+    @Test
+    @DisplayName("patch with a stale version is a conflict, patch of an unknown id is not found")
+    public void givenStaleVersionOrUnknownId_whenPatchEmployee_thenReturn409Or404() {
+
+        // given - precondition or setup
+        Employee saved = webTestClient.post().uri("/api/employees")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(employee("Sola", "sola@patch.io"))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(Employee.class)
+                .returnResult().getResponseBody();
+
+        // when - action or behaviour
+        WebTestClient.ResponseSpec stale = webTestClient.patch().uri("/api/employees/{id}", saved.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Employee.builder().firstName("Kemi").version(7L).build())
+                .exchange();
+        WebTestClient.ResponseSpec unknown = webTestClient.patch().uri("/api/employees/{id}", Long.MAX_VALUE)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Employee.builder().firstName("Kemi").build())
+                .exchange();
+
+        // then - verify output
+        stale.expectStatus().isEqualTo(409);
+        unknown.expectStatus().isNotFound();
+    }
+
+    @Test
+    @DisplayName("export streams every employee as newline delimited JSON")
+    public void givenEmployees_whenExportEmployees_thenOneJsonDocumentPerLine() {
+
+        // given - precondition or setup
+        webTestClient.post().uri("/api/employees/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(List.of(employee("Ada", "ada@export.io"), employee("Bola", "bola@export.io")))
+                .exchange()
+                .expectStatus().isCreated();
+
+        // when - action or behaviour
+        List<Employee> exported = webTestClient.get().uri("/api/employees/export")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(Employee.class)
+                .getResponseBody()
+                .collectList()
+                .block();
+
+        // then - verify output
+        assertThat(exported).extracting(Employee::getEmail).contains("ada@export.io", "bola@export.io");
+        assertThat(exported.stream().map(Employee::getId).collect(Collectors.toList())).isSorted();
+    }
+
+    private static Employee employee(String firstName, String email) {
+        return Employee.builder().firstName(firstName).lastName("Isewon").email(email).build();
+    }
+}
@@ -0,0 +1,101 @@
+package io.todimu.springboottesting.load;
+
+import io.todimu.springboottesting.SpringBootTestingApplication;
+import io.todimu.springboottesting.model.Employee;
+import io.todimu.springboottesting.service.EmployeeService;
+import io.todimu.springboottesting.service.ReactiveEmployeeService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Isolated;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import reactor.core.publisher.Flux;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the same mix against the servlet + JPA stack and the WebFlux + R2DBC stack, each on its own in-memory H2
+ * database, and prints both reports. The mix only uses routes both stacks expose. Run with
+ * {@code ./mvnw -Pload-test test -Dtest=ReactiveStackLoadComparisonTests}.
+ */
+@Tag("load")
+@Isolated
+public class ReactiveStackLoadComparisonTests {
+
+    private static final String MIX = "GET_BY_ID=60,LIST=10,GET_BY_EMAIL=10,CREATE=10,UPDATE=5,DELETE=5";
+
+    @Test
+    @DisplayName("compare servlet and reactive stacks under the same load")
+    public void givenSameMix_whenComparingServletAndReactiveStacks_thenReportBoth() throws Exception {
+
+        // given - precondition or setup
+        LoadGenerator.LoadProfile profile = new LoadGenerator.LoadProfile(
+                Integer.getInteger("load.clients", 256),
+                Duration.ofSeconds(Long.getLong("load.warmupSeconds", 5)),
+                Duration.ofSeconds(Long.getLong("load.durationSeconds", 20)),
+                LoadGenerator.LoadProfile.parseMix(System.getProperty("load.mix", MIX)));
+        int employees = Integer.getInteger("load.employees", 10_000);
+
+        // when - action or behaviour
+        LoadGenerator.LoadReport servlet = runAgainstServlet(profile, employees);
+        LoadGenerator.LoadReport reactive = runAgainstReactive(profile, employees);
+
+        // then - verify output
+        servlet.print(System.out, "servlet + JPA");
+        reactive.print(System.out, "WebFlux + R2DBC");
+
+        assertThat(servlet.totalRequests()).isPositive();
+        assertThat(reactive.totalRequests()).isPositive();
+    }
+
+    private static LoadGenerator.LoadReport runAgainstServlet(LoadGenerator.LoadProfile profile, int employees) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(SpringBootTestingApplication.class)
+                .profiles("load")
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")
+                .run()) {
+
+            List<Employee> seeded = LoadGenerator.seed(context.getBean(EmployeeService.class), employees);
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+
+            return new LoadGenerator(URI.create("http://localhost:" + port), seeded, profile).run();
+        }
+    }
+
+    private static LoadGenerator.LoadReport runAgainstReactive(LoadGenerator.LoadProfile profile, int employees) throws Exception {
+        // r2dbc-h2 runs H2 in this JVM, so Flyway's JDBC connection migrates the very database R2DBC reads
+        String database = UUID.randomUUID() + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(SpringBootTestingApplication.class)
+                .profiles("reactive")
+                .properties(
+                        "server.port=0",
+                        "spring.r2dbc.url=r2dbc:h2:mem:///" + database,
+                        "spring.r2dbc.username=sa",
+                        "spring.r2dbc.password=",
+                        "spring.flyway.url=jdbc:h2:mem:" + database)
+                .run()) {
+
+            ReactiveEmployeeService employeeService = context.getBean(ReactiveEmployeeService.class);
+            List<Employee> seeded = Flux.range(0, employees)
+                    .flatMapSequential(i -> employeeService.saveEmployee(Employee.builder()
+                            .firstName("First" + i)
+                            .lastName("Last" + i)
+                            .email("seed" + i + "@load.io")
+                            .build()), 16)
+                    .collectList()
+                    .block();
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+
+            return new LoadGenerator(URI.create("http://localhost:" + port), seeded, profile).run();
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package io.todimu.springboottesting.service;
+
+import io.todimu.springboottesting.dto.EmployeePage;
+import io.todimu.springboottesting.dto.EmployeeView;
+import io.todimu.springboottesting.exception.ResourceConflictException;
+import io.todimu.springboottesting.model.Employee;
+import io.todimu.springboottesting.repository.ReactiveEmployeeRepository;
+import io.todimu.springboottesting.service.impl.ReactiveEmployeeServiceImpl;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+public class ReactiveEmployeeServiceTests {
+
+    @Mock private ReactiveEmployeeRepository employeeRepository;
+
+    @InjectMocks private ReactiveEmployeeServiceImpl employeeService;
+
+    private Employee employee;
+
+    @BeforeEach
+    public void setup() {
+        employee = Employee.builder()
+                .id(1L)
+                .firstName("Todimu")
+                .lastName("Isewon")
+                .email("todimu@gmail")
+                .version(0L)
+                .build();
+    }
+
+    @Test
+    @DisplayName("save employee with an existing email throws an exception")
+    public void givenDuplicateEmail_whenSaveEmployee_thenThrowsException() {
+
+        // given - precondition or setup
+        given(employeeRepository.insert(employee)).willReturn(Mono.error(
+                new DataIntegrityViolationException("Duplicate entry for key 'UK_EMPLOYEE_EMAIL'")));
+
+        // when - action or behaviour
+        Mono<Employee> saved = employeeService.saveEmployee(employee);
+
+        // then - verify output
+        Assertions.assertThrows(ResourceConflictException.class, saved::block);
+    }
+
+    @Test
+    @DisplayName("get employees returns a page and a cursor when more rows exist")
+    public void givenMoreRowsThanLimit_whenGetEmployees_thenReturnPageWithCursor() {
+
+        // given - precondition or setup
+        Employee employee1 = Employee.builder().id(2L).firstName("Sola").lastName("Isewon").email("sola@gmail").build();
+        given(employeeRepository.findByIdGreaterThan(0L, 2)).willReturn(Flux.just(employee, employee1));
+
+        // when - action or behaviour
+        EmployeePage page = employeeService.getEmployees(null, 1).block();
+
+        // then - verify output
+        assertThat(page).isNotNull();
+        assertThat(page.employees()).containsExactly(EmployeeView.from(employee));
+        assertThat(page.nextCursor()).isNotNull();
+    }
+
+    @Test
+    @DisplayName("update employee bumps the version")
+    public void givenCurrentVersion_whenUpdateEmployee_thenReturnEmployeeWithNextVersion() {
+
+        // given - precondition or setup
+        given(employeeRepository.update(employee)).willReturn(Mono.just(1L));
+
+        // when - action or behaviour
+        Employee updatedEmployee = employeeService.updateEmployee(employee).block();
+
+        // then - verify output
+        assertThat(updatedEmployee).isNotNull();
+        assertThat(updatedEmployee.getVersion()).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("update employee with a stale version throws a conflict")
+    public void givenStaleVersion_whenUpdateEmployee_thenThrowsConflict() {
+
+        // given - precondition or setup
+        given(employeeRepository.update(employee)).willReturn(Mono.just(0L));
+
+        // when - action or behaviour
+        Mono<Employee> updated = employeeService.updateEmployee(employee);
+
+        // then - verify output
+        Assertions.assertThrows(ResourceConflictException.class, updated::block);
+    }
+
+    @Test
+    @DisplayName("delete unknown employee returns false")
+    public void givenUnknownId_whenDeleteEmployee_thenReturnFalse() {
+
+        // given - precondition or setup
+        given(employeeRepository.deleteById(99L)).willReturn(Mono.just(0L));
+
+        // when - action or behaviour
+        Boolean deleted = employeeService.deleteEmployee(99L).block();
+
+        // then - verify output
+        assertThat(deleted).isFalse();
+    }
+
+    @Test
+    @DisplayName("batch save with an email that already exists throws a conflict before inserting")
+    public void givenExistingEmailInBatch_whenSaveEmployees_thenThrowsConflict() {
+
+        // given - precondition or setup
+        Employee employee1 = Employee.builder().firstName("Sola").lastName("Isewon").email("sola@gmail").build();
+        given(employeeRepository.findExistingEmails(anyCollection())).willReturn(Flux.just("sola@gmail"));
+
+        // when - action or behaviour
+        Mono<List<Employee>> saved = employeeService.saveEmployees(List.of(employee, employee1));
+
+        // then - verify output
+        Assertions.assertThrows(ResourceConflictException.class, saved::block);
+        verify(employeeRepository, never()).insert(any(Employee.class));
+    }
+
+    @Test
+    @DisplayName("get employees by ids answers in the requested order and skips unknown ids")
+    public void givenIds_whenGetEmployeesByIds_thenReturnInRequestedOrder() {
+
+        // given - precondition or setup
+        Employee employee1 = Employee.builder().id(2L).firstName("Sola").lastName("Isewon").email("sola@gmail").build();
+        given(employeeRepository.findByIdIn(List.of(2L, 99L, 1L))).willReturn(Flux.just(employee, employee1));
+
+        // when - action or behaviour
+        List<EmployeeView> employees = employeeService.getEmployeesByIds(List.of(2L, 99L, 1L, 2L)).block();
+
+        // then - verify output
+        assertThat(employees).containsExactly(EmployeeView.from(employee1), EmployeeView.from(employee));
+    }
+
+    @Test
+    @DisplayName("patch employee with a stale version throws a conflict")
+    public void givenStaleVersion_whenPatchEmployee_thenThrowsConflict() {
+
+        // given - precondition or setup
+        Employee patch = Employee.builder().firstName("Lani").version(3L).build();
+        given(employeeRepository.patch(eq(1L), eq("Lani"), isNull(), isNull(), eq(3L), any(Instant.class))).willReturn(Mono.just(0L));
+        given(employeeRepository.existsById(1L)).willReturn(Mono.just(true));
+
+        // when - action or behaviour
+        Mono<Boolean> patched = employeeService.patchEmployee(1L, patch);
+
+        // then - verify output
+        Assertions.assertThrows(ResourceConflictException.class, patched::block);
+    }
+
+    @Test
+    @DisplayName("patch unknown employee returns false")
+    public void givenUnknownId_whenPatchEmployee_thenReturnFalse() {
+
+        // given - precondition or setup
+        Employee patch = Employee.builder().firstName("Lani").build();
+        given(employeeRepository.patch(eq(99L), eq("Lani"), isNull(), isNull(), isNull(), any(Instant.class))).willReturn(Mono.just(0L));
+
+        // when - action or behaviour
+        Boolean patched = employeeService.patchEmployee(99L, patch).block();
+
+        // then - verify output
+        assertThat(patched).isFalse();
+        verify(employeeRepository, never()).existsById(99L);
+    }
+
+    @Test
+    @DisplayName("bulk delete counts the rows removed once per distinct id")
+    public void givenRepeatedIds_whenDeleteEmployees_thenReturnDeletedCount() {
+
+        // given - precondition or setup
+        given(employeeRepository.deleteByIdIn(List.of(1L, 2L))).willReturn(Mono.just(2L));
+
+        // when - action or behaviour
+        Integer deleted = employeeService.deleteEmployees(List.of(1L, 2L, 1L)).block();
+
+        // then - verify output
+        assertThat(deleted).isEqualTo(2);
+    }
+}
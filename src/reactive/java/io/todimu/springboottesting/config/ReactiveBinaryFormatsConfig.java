@@ -0,0 +1,74 @@
+package io.todimu.springboottesting.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.web.codec.CodecCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.cbor.Jackson2CborDecoder;
+import org.springframework.http.codec.cbor.Jackson2CborEncoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.codec.json.Jackson2SmileDecoder;
+import org.springframework.http.codec.json.Jackson2SmileEncoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.lang.Nullable;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The CBOR and Smile encodings of {@link BinaryFormatsConfig} as WebFlux codecs, for the reactive profile. Smile has a
+ * slot among the default codecs, behind JSON. CBOR has none, and custom codecs are consulted before the defaults, so
+ * the JSON encoder is registered once more in front of it to stay what a caller without {@code Accept} gets.
+ */
+@Configuration
+@Profile("reactive")
+public class ReactiveBinaryFormatsConfig {
+
+    @Bean
+    public CodecCustomizer binaryFormatsCodecCustomizer(ObjectProvider<Jackson2ObjectMapperBuilder> builder, ObjectMapper objectMapper) {
+        ObjectMapper cborMapper = BinaryFormatsConfig.cborMapper(builder);
+        ObjectMapper smileMapper = BinaryFormatsConfig.smileMapper(builder);
+
+        // the mapper constructors fall back to the JSON mime types unless they are given their own
+        return configurer -> {
+            configurer.defaultCodecs().jackson2SmileEncoder(new Jackson2SmileEncoder(smileMapper, BinaryFormatsConfig.APPLICATION_SMILE));
+            configurer.defaultCodecs().jackson2SmileDecoder(new Jackson2SmileDecoder(smileMapper, BinaryFormatsConfig.APPLICATION_SMILE));
+            configurer.customCodecs().register(new Jackson2JsonEncoder(objectMapper));
+            configurer.customCodecs().register(new CborEncoder(cborMapper));
+            configurer.customCodecs().register(new Jackson2CborDecoder(cborMapper, MediaType.APPLICATION_CBOR));
+        };
+    }
+
+    /**
+     * {@link Jackson2CborEncoder} refuses every publisher, yet WebFlux hands even a single body over as a {@link Mono}.
+     * A {@link Flux} is written as one CBOR array, as the JSON encoder does for media types that do not stream.
+     */
+    static class CborEncoder extends Jackson2CborEncoder {
+
+        CborEncoder(ObjectMapper mapper) {
+            super(mapper, MediaType.APPLICATION_CBOR);
+        }
+
+        @Override
+        public Flux<DataBuffer> encode(Publisher<?> inputStream, DataBufferFactory bufferFactory, ResolvableType elementType,
+                                       @Nullable MimeType mimeType, @Nullable Map<String, Object> hints) {
+            if (inputStream instanceof Mono<?> mono) {
+                return mono.map(value -> encodeValue(value, bufferFactory, elementType, mimeType, hints)).flux();
+            }
+            ResolvableType listType = ResolvableType.forClassWithGenerics(List.class, elementType);
+            return Flux.from(inputStream).collectList()
+                    .map(values -> encodeValue(values, bufferFactory, listType, mimeType, hints))
+                    .flux();
+        }
+    }
+}
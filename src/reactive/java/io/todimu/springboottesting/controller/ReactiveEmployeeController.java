@@ -0,0 +1,122 @@
+package io.todimu.springboottesting.controller;
+
+import io.todimu.springboottesting.dto.DeleteResult;
+import io.todimu.springboottesting.dto.EmployeePage;
+import io.todimu.springboottesting.dto.EmployeeView;
+import io.todimu.springboottesting.model.Employee;
+import io.todimu.springboottesting.service.ReactiveEmployeeService;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * WebFlux mirror of {@link EmployeeController}, active with the reactive profile. Not mirrored: the asynchronous
+ * ingestion and search routes, which sit on in-process servlet-only components, and the ETag / If-Match handling.
+ * The first and last name lookup has a route only here.
+ */
+@RestController
+@Profile("reactive")
+@RequestMapping("/api/employees")
+public class ReactiveEmployeeController {
+
+    private final ReactiveEmployeeService employeeService;
+
+    public ReactiveEmployeeController(ReactiveEmployeeService employeeService) {
+        this.employeeService = employeeService;
+    }
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<Employee> createEmployee(@RequestBody Employee employee) {
+        return employeeService.saveEmployee(employee);
+    }
+
+    @PostMapping("batch")
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<List<Employee>> createEmployees(@RequestBody List<Employee> employees) {
+        return employeeService.saveEmployees(employees);
+    }
+
+    @GetMapping
+    public Mono<EmployeePage> getAllEmployees(@RequestParam(name = "cursor", required = false) String cursor,
+                                              @RequestParam(name = "limit", defaultValue = "50") int limit) {
+        return employeeService.getEmployees(cursor, limit);
+    }
+
+    @GetMapping(params = "ids")
+    public Mono<List<EmployeeView>> getEmployeesByIds(@RequestParam(name = "ids") List<Long> ids) {
+        return employeeService.getEmployeesByIds(ids);
+    }
+
+    @GetMapping(params = {"firstName", "lastName"})
+    public Mono<ResponseEntity<Employee>> getEmployeeByName(@RequestParam(name = "firstName") String firstName,
+                                                            @RequestParam(name = "lastName") String lastName) {
+        return employeeService.getEmployeeByName(firstName, lastName)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    // WebFlux writes one JSON document per line as rows arrive, demand from the client paces the database reads
+    @GetMapping(value = "export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<Employee> exportEmployees() {
+        return employeeService.exportEmployees();
+    }
+
+    @GetMapping(params = "email")
+    public Mono<ResponseEntity<Employee>> getEmployeeByEmail(@RequestParam(name = "email") String email) {
+        return employeeService.getEmployeeByEmail(email)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("{id}")
+    public Mono<ResponseEntity<Employee>> getEmployeeById(@PathVariable(name = "id") long employeeId) {
+        return employeeService.getEmployeeById(employeeId)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @PutMapping("{id}")
+    public Mono<ResponseEntity<Employee>> updateEmployee(@PathVariable(value = "id") long employeeId,
+                                                         @RequestBody Employee employee) {
+
+        return employeeService.getEmployeeById(employeeId)
+                .flatMap(savedEmployee -> employeeService.updateEmployee(Employee.builder()
+                        .id(savedEmployee.getId())
+                        .firstName(employee.getFirstName())
+                        .lastName(employee.getLastName())
+                        .email(employee.getEmail())
+                        .version(employee.getVersion() != null ? employee.getVersion() : savedEmployee.getVersion())
+                        .build()))
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @PatchMapping("{id}")
+    public Mono<ResponseEntity<Void>> patchEmployee(@PathVariable(value = "id") long employeeId,
+                                                    @RequestBody Employee employee) {
+        return employeeService.patchEmployee(employeeId, employee)
+                .map(patched -> patched
+                        ? ResponseEntity.noContent().<Void>build()
+                        : ResponseEntity.notFound().<Void>build());
+    }
+
+    @DeleteMapping("{id}")
+    public Mono<ResponseEntity<String>> deleteEmployee(@PathVariable(value = "id") long employeeId) {
+        return employeeService.deleteEmployee(employeeId)
+                .map(deleted -> deleted
+                        ? new ResponseEntity<>("Employee deleted successfully", HttpStatus.OK)
+                        : ResponseEntity.<String>notFound().build());
+    }
+
+    @DeleteMapping(params = "ids")
+    public Mono<DeleteResult> deleteEmployees(@RequestParam(name = "ids") List<Long> ids) {
+        return employeeService.deleteEmployees(ids).map(DeleteResult::new);
+    }
+}
@@ -0,0 +1,206 @@
+package io.todimu.springboottesting.repository;
+
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.Readable;
+import io.todimu.springboottesting.model.Employee;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.Locale;
+
+/**
+ * R2DBC counterpart of {@link EmployeeRepository} for the reactive profile, over the same {@code employee} table.
+ * Ids come from the same {@code employee_seq} JPA allocates pooled blocks from: each insert takes one whole
+ * sequence step for itself, which never falls inside a block handed out to Hibernate.
+ */
+@Repository
+@Profile("reactive")
+public class ReactiveEmployeeRepository {
+
+    private static final String COLUMNS = "id, first_name, last_name, email, version, last_modified";
+
+    private final DatabaseClient databaseClient;
+
+    private final boolean mysql;
+
+    public ReactiveEmployeeRepository(DatabaseClient databaseClient, ConnectionFactory connectionFactory) {
+        this.databaseClient = databaseClient;
+        this.mysql = connectionFactory.getMetadata().getName().toLowerCase(Locale.ROOT).contains("mysql");
+    }
+
+    public Mono<Employee> findById(long id) {
+        return databaseClient.sql("select " + COLUMNS + " from employee where id = :id")
+                .bind("id", id)
+                .map(ReactiveEmployeeRepository::toEmployee)
+                .one();
+    }
+
+    public Mono<Employee> findByEmail(String email) {
+        return databaseClient.sql("select " + COLUMNS + " from employee where email = :email")
+                .bind("email", email)
+                .map(ReactiveEmployeeRepository::toEmployee)
+                .one();
+    }
+
+    public Flux<Employee> findByIdIn(Collection<Long> ids) {
+        return databaseClient.sql("select " + COLUMNS + " from employee where id in (:ids)")
+                .bind("ids", ids)
+                .map(ReactiveEmployeeRepository::toEmployee)
+                .all();
+    }
+
+    public Flux<String> findExistingEmails(Collection<String> emails) {
+        return databaseClient.sql("select email from employee where email in (:emails)")
+                .bind("emails", emails)
+                .map(row -> row.get("email", String.class))
+                .all();
+    }
+
+    public Mono<Boolean> existsById(long id) {
+        return databaseClient.sql("select 1 from employee where id = :id")
+                .bind("id", id)
+                .map(row -> Boolean.TRUE)
+                .first()
+                .defaultIfEmpty(Boolean.FALSE);
+    }
+
+    // the whole table in id order, rows are emitted as the driver reads them and only as fast as they are consumed
+    public Flux<Employee> findAllByOrderByIdAsc() {
+        return databaseClient.sql("select " + COLUMNS + " from employee order by id")
+                .map(ReactiveEmployeeRepository::toEmployee)
+                .all();
+    }
+
+    // same lookup as findByJPQL / findByNativeSQL
+    public Mono<Employee> findByFirstNameAndLastName(String firstName, String lastName) {
+        return databaseClient.sql("select " + COLUMNS + " from employee where first_name = :firstName and last_name = :lastName")
+                .bind("firstName", firstName)
+                .bind("lastName", lastName)
+                .map(ReactiveEmployeeRepository::toEmployee)
+                .first();
+    }
+
+    // keyset page, see EmployeeRepository.findViewsByIdGreaterThan
+    public Flux<Employee> findByIdGreaterThan(long id, int limit) {
+        return databaseClient.sql("select " + COLUMNS + " from employee where id > :id order by id limit :limit")
+                .bind("id", id)
+                .bind("limit", limit)
+                .map(ReactiveEmployeeRepository::toEmployee)
+                .all();
+    }
+
+    public Mono<Employee> insert(Employee employee) {
+        Instant now = Instant.now();
+        return nextId().flatMap(id -> databaseClient.sql("insert into employee (" + COLUMNS + ") values (:id, :firstName, :lastName, :email, 0, :lastModified)")
+                .bind("id", id)
+                .bind("firstName", employee.getFirstName())
+                .bind("lastName", employee.getLastName())
+                .bind("email", employee.getEmail())
+                .bind("lastModified", toColumn(now))
+                .fetch()
+                .rowsUpdated()
+                .thenReturn(Employee.builder()
+                        .id(id)
+                        .firstName(employee.getFirstName())
+                        .lastName(employee.getLastName())
+                        .email(employee.getEmail())
+                        .version(0L)
+                        .lastModified(now)
+                        .build()));
+    }
+
+    /**
+     * Versioned full update, emits the number of rows changed: {@code 0} when the id is unknown or the version is stale.
+     */
+    public Mono<Long> update(Employee employee) {
+        employee.setLastModified(Instant.now());
+        return databaseClient.sql("update employee set first_name = :firstName, last_name = :lastName, email = :email, version = version + 1, "
+                        + "last_modified = :lastModified where id = :id and version = :version")
+                .bind("firstName", employee.getFirstName())
+                .bind("lastName", employee.getLastName())
+                .bind("email", employee.getEmail())
+                .bind("id", employee.getId())
+                .bind("version", employee.getVersion())
+                .bind("lastModified", toColumn(employee.getLastModified()))
+                .fetch()
+                .rowsUpdated();
+    }
+
+    /**
+     * Partial update like {@code EmployeeRepository.patchEmployee}: {@code null} fields keep their value, a {@code null}
+     * version skips the optimistic check. Emits the number of rows changed.
+     */
+    public Mono<Long> patch(long id, String firstName, String lastName, String email, Long version, Instant lastModified) {
+        DatabaseClient.GenericExecuteSpec statement = databaseClient.sql("update employee set first_name = coalesce(:firstName, first_name), "
+                        + "last_name = coalesce(:lastName, last_name), email = coalesce(:email, email), version = version + 1, "
+                        + "last_modified = :lastModified where id = :id and (:version is null or version = :version)")
+                .bind("id", id)
+                .bind("lastModified", toColumn(lastModified));
+        statement = bindNullable(statement, "firstName", firstName, String.class);
+        statement = bindNullable(statement, "lastName", lastName, String.class);
+        statement = bindNullable(statement, "email", email, String.class);
+        statement = bindNullable(statement, "version", version, Long.class);
+        return statement.fetch().rowsUpdated();
+    }
+
+    public Mono<Long> deleteById(long id) {
+        return databaseClient.sql("delete from employee where id = :id")
+                .bind("id", id)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    public Mono<Long> deleteByIdIn(Collection<Long> ids) {
+        return databaseClient.sql("delete from employee where id in (:ids)")
+                .bind("ids", ids)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    private Mono<Long> nextId() {
+        if (!mysql) {
+            return databaseClient.sql("select next value for employee_seq")
+                    .map(row -> row.get(0, Long.class))
+                    .one();
+        }
+
+        // MySQL has no sequences, Hibernate emulates employee_seq with a one row table read and bumped by the allocation size
+        return databaseClient.inConnection(connection ->
+                Mono.from(connection.createStatement("update employee_seq set next_val = last_insert_id(next_val + 50)").execute())
+                        .flatMap(result -> Mono.from(result.getRowsUpdated()))
+                        .then(Mono.defer(() -> Mono.from(connection.createStatement("select last_insert_id() - 50").execute())))
+                        .flatMap(result -> Mono.from(result.map(row -> row.get(0, Long.class)))));
+    }
+
+    private static <T> DatabaseClient.GenericExecuteSpec bindNullable(DatabaseClient.GenericExecuteSpec statement, String name,
+                                                                    T value, Class<T> type) {
+        return value != null ? statement.bind(name, value) : statement.bindNull(name, type);
+    }
+
+    private static Employee toEmployee(Readable row) {
+        return Employee.builder()
+                .id(row.get("id", Long.class))
+                .firstName(row.get("first_name", String.class))
+                .lastName(row.get("last_name", String.class))
+                .email(row.get("email", String.class))
+                .version(row.get("version", Long.class))
+                .lastModified(fromColumn(row.get("last_modified", LocalDateTime.class)))
+                .build();
+    }
+
+    // Hibernate writes Instant columns as UTC wall-clock time, do the same so both stacks read each other's rows
+    private static LocalDateTime toColumn(Instant instant) {
+        return LocalDateTime.ofInstant(instant, ZoneOffset.UTC);
+    }
+
+    private static Instant fromColumn(LocalDateTime column) {
+        return column != null ? column.toInstant(ZoneOffset.UTC) : null;
+    }
+}
@@ -0,0 +1,39 @@
+package io.todimu.springboottesting.service;
+
+import io.todimu.springboottesting.dto.EmployeePage;
+import io.todimu.springboottesting.dto.EmployeeView;
+import io.todimu.springboottesting.model.Employee;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Non-blocking mirror of {@link EmployeeService} used by the reactive profile.
+ */
+public interface ReactiveEmployeeService {
+
+    Mono<Employee> saveEmployee(Employee employee);
+
+    Mono<List<Employee>> saveEmployees(List<Employee> employees);
+
+    Mono<EmployeePage> getEmployees(String cursor, int limit);
+
+    Mono<List<EmployeeView>> getEmployeesByIds(List<Long> ids);
+
+    Mono<Employee> getEmployeeById(long id);
+
+    Mono<Employee> getEmployeeByEmail(String email);
+
+    Mono<Employee> getEmployeeByName(String firstName, String lastName);
+
+    Flux<Employee> exportEmployees();
+
+    Mono<Employee> updateEmployee(Employee updatedEmployee);
+
+    Mono<Boolean> patchEmployee(long id, Employee patch);
+
+    Mono<Boolean> deleteEmployee(long id);
+
+    Mono<Integer> deleteEmployees(List<Long> ids);
+}
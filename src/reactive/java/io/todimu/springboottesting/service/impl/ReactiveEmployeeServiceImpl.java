@@ -0,0 +1,186 @@
+package io.todimu.springboottesting.service.impl;
+
+import io.todimu.springboottesting.dto.EmployeePage;
+import io.todimu.springboottesting.dto.EmployeeView;
+import io.todimu.springboottesting.exception.BadRequestException;
+import io.todimu.springboottesting.exception.ResourceConflictException;
+import io.todimu.springboottesting.model.Employee;
+import io.todimu.springboottesting.repository.ReactiveEmployeeRepository;
+import io.todimu.springboottesting.service.ReactiveEmployeeService;
+import io.todimu.springboottesting.util.PageCursor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+
+@Service
+@Profile("reactive")
+public class ReactiveEmployeeServiceImpl implements ReactiveEmployeeService {
+
+    private final ReactiveEmployeeRepository employeeRepository;
+
+    public ReactiveEmployeeServiceImpl(ReactiveEmployeeRepository employeeRepository) {
+        this.employeeRepository = employeeRepository;
+    }
+
+    @Override
+    public Mono<Employee> saveEmployee(Employee employee) {
+        return employeeRepository.insert(employee)
+                .onErrorMap(ReactiveEmployeeServiceImpl::isDuplicateEmail,
+                        e -> new ResourceConflictException("Employee already exists with given email:" + employee.getEmail(), e));
+    }
+
+    // one transaction for the batch, as on the servlet stack: a duplicate anywhere leaves nothing behind
+    @Override
+    @Transactional
+    public Mono<List<Employee>> saveEmployees(List<Employee> employees) {
+
+        if (employees.size() > EmployeeServiceImpl.MAX_BATCH_SIZE) {
+            return Mono.error(new BadRequestException("Batch size exceeds the maximum of " + EmployeeServiceImpl.MAX_BATCH_SIZE + " employees"));
+        }
+
+        Set<String> emails = new HashSet<>();
+        for (Employee employee : employees) {
+            if (!emails.add(employee.getEmail())) {
+                return Mono.error(new ResourceConflictException("Employee already exists with given email:" + employee.getEmail()));
+            }
+        }
+
+        if (emails.isEmpty()) {
+            return Mono.just(List.of());
+        }
+
+        return employeeRepository.findExistingEmails(emails).collectList()
+                .flatMap(existingEmails -> existingEmails.isEmpty()
+                        ? Flux.fromIterable(employees).concatMap(employeeRepository::insert).collectList()
+                        : Mono.error(new ResourceConflictException("Employee already exists with given email:" + String.join(",", existingEmails))))
+                .onErrorMap(ReactiveEmployeeServiceImpl::isDuplicateEmail,
+                        e -> new ResourceConflictException("Employee already exists with given email:" + String.join(",", emails), e));
+    }
+
+    @Override
+    public Mono<EmployeePage> getEmployees(String cursor, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, EmployeeServiceImpl.MAX_PAGE_SIZE));
+
+        return Mono.fromCallable(() -> PageCursor.decode(cursor))
+                .flatMap(afterId -> employeeRepository.findByIdGreaterThan(afterId, pageSize + 1).map(EmployeeView::from).collectList())
+                .map(employees -> {
+                    if (employees.size() <= pageSize) {
+                        return new EmployeePage(employees, null);
+                    }
+                    List<EmployeeView> page = employees.subList(0, pageSize);
+                    return new EmployeePage(page, PageCursor.encode(page.get(pageSize - 1).id()));
+                });
+    }
+
+    @Override
+    public Mono<List<EmployeeView>> getEmployeesByIds(List<Long> ids) {
+
+        Set<Long> distinctIds = new LinkedHashSet<>(ids);
+
+        if (distinctIds.size() > EmployeeServiceImpl.MAX_IDS_PER_LOOKUP) {
+            return Mono.error(new BadRequestException("Lookup exceeds the maximum of " + EmployeeServiceImpl.MAX_IDS_PER_LOOKUP + " ids"));
+        }
+
+        // bounded IN lists as on the servlet stack, the chunks are queried side by side
+        return Flux.fromIterable(EmployeeServiceImpl.partition(distinctIds))
+                .flatMap(employeeRepository::findByIdIn)
+                .collectMap(Employee::getId, EmployeeView::from)
+                .map(employeesById -> distinctIds.stream()
+                        .map(employeesById::get)
+                        .filter(Objects::nonNull)
+                        .toList());
+    }
+
+    @Override
+    public Mono<Employee> getEmployeeById(long id) {
+        return employeeRepository.findById(id);
+    }
+
+    @Override
+    public Mono<Employee> getEmployeeByEmail(String email) {
+        return employeeRepository.findByEmail(email);
+    }
+
+    @Override
+    public Mono<Employee> getEmployeeByName(String firstName, String lastName) {
+        return employeeRepository.findByFirstNameAndLastName(firstName, lastName);
+    }
+
+    @Override
+    public Flux<Employee> exportEmployees() {
+        return employeeRepository.findAllByOrderByIdAsc();
+    }
+
+    @Override
+    public Mono<Employee> updateEmployee(Employee updatedEmployee) {
+        return employeeRepository.update(updatedEmployee)
+                .onErrorMap(ReactiveEmployeeServiceImpl::isDuplicateEmail,
+                        e -> new ResourceConflictException("Employee already exists with given email:" + updatedEmployee.getEmail(), e))
+                .flatMap(updated -> {
+                    if (updated == 0) {
+                        return Mono.error(new ResourceConflictException(
+                                "Employee was modified concurrently, expected version:" + updatedEmployee.getVersion()));
+                    }
+                    updatedEmployee.setVersion(updatedEmployee.getVersion() + 1);
+                    return Mono.just(updatedEmployee);
+                });
+    }
+
+    @Override
+    @Transactional
+    public Mono<Boolean> patchEmployee(long id, Employee patch) {
+        return employeeRepository.patch(id, patch.getFirstName(), patch.getLastName(), patch.getEmail(), patch.getVersion(), Instant.now())
+                .onErrorMap(ReactiveEmployeeServiceImpl::isDuplicateEmail,
+                        e -> new ResourceConflictException("Employee already exists with given email:" + patch.getEmail(), e))
+                .flatMap(updated -> {
+                    if (updated > 0) {
+                        return Mono.just(true);
+                    }
+                    // nothing matched: only look the row up on the failure path, to tell a stale version from a missing row
+                    if (patch.getVersion() == null) {
+                        return Mono.just(false);
+                    }
+                    return employeeRepository.existsById(id).flatMap(exists -> exists
+                            ? Mono.error(new ResourceConflictException("Employee was modified concurrently, expected version:" + patch.getVersion()))
+                            : Mono.just(false));
+                });
+    }
+
+    @Override
+    public Mono<Boolean> deleteEmployee(long id) {
+        return employeeRepository.deleteById(id).map(deleted -> deleted > 0);
+    }
+
+    @Override
+    public Mono<Integer> deleteEmployees(List<Long> ids) {
+
+        Set<Long> distinctIds = new LinkedHashSet<>(ids);
+
+        if (distinctIds.size() > EmployeeServiceImpl.MAX_IDS_PER_LOOKUP) {
+            return Mono.error(new BadRequestException("Delete exceeds the maximum of " + EmployeeServiceImpl.MAX_IDS_PER_LOOKUP + " ids"));
+        }
+
+        // one statement per chunk, one after the other, each in its own short transaction
+        return Flux.fromIterable(EmployeeServiceImpl.partition(distinctIds))
+                .concatMap(employeeRepository::deleteByIdIn)
+                .reduce(0L, Long::sum)
+                .map(Long::intValue);
+    }
+
+    private static boolean isDuplicateEmail(Throwable e) {
+        return e instanceof DataIntegrityViolationException
+                && e.getMessage() != null
+                && e.getMessage().toLowerCase(Locale.ROOT).contains(Employee.EMAIL_CONSTRAINT);
+    }
+}
@@ -1,10 +1,9 @@
 package io.todimu.springboottesting;
 
+import io.todimu.springboottesting.integration.AbstractIntegrationTest;
 import org.junit.jupiter.api.Test;
-import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
-class SpringBootTestingApplicationTests {
+class SpringBootTestingApplicationTests extends AbstractIntegrationTest {
 
     @Test
     void contextLoads() {
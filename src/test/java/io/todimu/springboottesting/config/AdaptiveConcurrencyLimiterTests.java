@@ -0,0 +1,141 @@
+package io.todimu.springboottesting.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AdaptiveConcurrencyLimiterTests {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    @DisplayName("limit grows while latency stays flat and shrinks once it rises")
+    public void givenLatencySamples_whenReleased_thenLimitFollowsLatency() throws Exception {
+
+        // given - precondition or setup
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 4, 100, 10, clock::get);
+
+        // when - action or behaviour
+        for (int round = 0; round < 20; round++) {
+            saturate(limiter, Duration.ofMillis(10));
+        }
+        int grown = limiter.getLimit();
+
+        // the baseline catches up with a lasting slowdown eventually, look right after it starts
+        for (int round = 0; round < 2; round++) {
+            saturate(limiter, Duration.ofMillis(40));
+        }
+
+        // then - verify output
+        assertThat(grown).isGreaterThan(10);
+        assertThat(limiter.getLimit()).isLessThan(grown);
+        assertThat(limiter.getInFlight()).isZero();
+    }
+
+    @Test
+    @DisplayName("dropped requests back the limit off")
+    public void givenDroppedRequest_whenReleased_thenLimitDecreases() throws Exception {
+
+        // given - precondition or setup
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 4, 100, 10, clock::get);
+
+        // when - action or behaviour
+        limiter.tryAcquire(Duration.ZERO).dropped();
+
+        // then - verify output
+        assertThat(limiter.getLimit()).isEqualTo(18);
+    }
+
+    @Test
+    @DisplayName("a caller over the limit is turned away once its wait runs out")
+    public void givenFullLimit_whenWaitExpires_thenAcquireFails() throws Exception {
+
+        // given - precondition or setup
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 1, 1, 10);
+        AdaptiveConcurrencyLimiter.Permit held = limiter.tryAcquire(Duration.ZERO);
+
+        // when - action or behaviour
+        AdaptiveConcurrencyLimiter.Permit rejected = limiter.tryAcquire(Duration.ofMillis(20));
+        held.ignore();
+
+        // then - verify output
+        assertThat(rejected).isNull();
+        assertThat(limiter.tryAcquire(Duration.ZERO)).isNotNull();
+    }
+
+    @Test
+    @DisplayName("a waiting caller takes the slot as soon as it is released")
+    public void givenWaitingCaller_whenSlotReleased_thenWaiterAcquires() throws Exception {
+
+        // given - precondition or setup
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 1, 1, 10);
+        AdaptiveConcurrencyLimiter.Permit held = limiter.tryAcquire(Duration.ZERO);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        try {
+            // when - action or behaviour
+            Future<AdaptiveConcurrencyLimiter.Permit> waiter = executor.submit(() -> limiter.tryAcquire(Duration.ofSeconds(5)));
+            Thread.sleep(50);
+            held.success();
+
+            // then - verify output
+            assertThat(waiter.get(5, TimeUnit.SECONDS)).isNotNull();
+            assertThat(limiter.getInFlight()).isEqualTo(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("requests over the read limit are shed with 503 and Retry-After while writes go through")
+    public void givenFullReadLimit_whenFilter_thenReadsShedAndWritesPass() throws Exception {
+
+        // given - precondition or setup
+        AdaptiveConcurrencyLimiter readLimiter = new AdaptiveConcurrencyLimiter(1, 1, 1, 0);
+        AdaptiveConcurrencyLimiter writeLimiter = new AdaptiveConcurrencyLimiter(1, 1, 1, 0);
+        AtomicInteger readRejections = new AtomicInteger();
+        ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(readLimiter, writeLimiter, Duration.ZERO,
+                Duration.ofSeconds(2), readRejections::incrementAndGet, () -> { });
+        readLimiter.tryAcquire(Duration.ZERO);
+
+        // when - action or behaviour
+        MockHttpServletResponse readResponse = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/employees/1"), readResponse, new MockFilterChain());
+
+        MockHttpServletResponse writeResponse = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/employees"), writeResponse, new MockFilterChain());
+
+        // then - verify output
+        assertThat(readResponse.getStatus()).isEqualTo(503);
+        assertThat(readResponse.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("2");
+        assertThat(readRejections.get()).isEqualTo(1);
+        assertThat(writeResponse.getStatus()).isEqualTo(200);
+        assertThat(writeLimiter.getInFlight()).isZero();
+    }
+
+    // fills the whole limit, lets the given time pass and completes every request
+    private void saturate(AdaptiveConcurrencyLimiter limiter, Duration latency) throws InterruptedException {
+        List<AdaptiveConcurrencyLimiter.Permit> permits = new ArrayList<>();
+        AdaptiveConcurrencyLimiter.Permit permit;
+        while ((permit = limiter.tryAcquire(Duration.ZERO)) != null) {
+            permits.add(permit);
+        }
+        clock.addAndGet(latency.toNanos());
+        permits.forEach(AdaptiveConcurrencyLimiter.Permit::success);
+    }
+}
@@ -0,0 +1,116 @@
+package io.todimu.springboottesting.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+public class ReplicaRoutingDataSourceTests {
+
+    @Mock private DataSource primary;
+
+    @Mock private DataSource replicaOne;
+
+    @Mock private DataSource replicaTwo;
+
+    @Mock private Connection primaryConnection;
+
+    @Mock private Connection replicaOneConnection;
+
+    @Mock private Connection replicaTwoConnection;
+
+    private ReplicaRoutingDataSource routingDataSource;
+
+    @BeforeEach
+    public void setup() {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("replica-0", replicaOne);
+        replicas.put("replica-1", replicaTwo);
+
+        routingDataSource = new ReplicaRoutingDataSource(primary, replicas);
+        routingDataSource.afterPropertiesSet();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    @DisplayName("read-only connections alternate between replicas")
+    public void givenReadOnlyTransaction_whenGetConnection_thenReplicasRoundRobin() throws SQLException {
+
+        // given - precondition or setup
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        given(replicaOne.getConnection()).willReturn(replicaOneConnection);
+        given(replicaTwo.getConnection()).willReturn(replicaTwoConnection);
+
+        // when - action or behaviour
+        Connection first = routingDataSource.getConnection();
+        Connection second = routingDataSource.getConnection();
+
+        // then - verify output
+        assertThat(first).isSameAs(replicaOneConnection);
+        assertThat(second).isSameAs(replicaTwoConnection);
+        verify(primary, never()).getConnection();
+    }
+
+    @Test
+    @DisplayName("write connections and pinned reads go to the primary")
+    public void givenWriteOrPinnedRead_whenGetConnection_thenPrimary() throws SQLException {
+
+        // given - precondition or setup
+        given(primary.getConnection()).willReturn(primaryConnection);
+
+        // when - action or behaviour
+        Connection write = routingDataSource.getConnection();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        Connection pinnedRead;
+        try (ReplicaRoutingContext.Scope ignored = ReplicaRoutingContext.forcePrimary()) {
+            pinnedRead = routingDataSource.getConnection();
+        }
+
+        // then - verify output
+        assertThat(write).isSameAs(primaryConnection);
+        assertThat(pinnedRead).isSameAs(primaryConnection);
+        verify(replicaOne, never()).getConnection();
+    }
+
+    @Test
+    @DisplayName("a failing replica is ejected and the read falls back")
+    public void givenFailingReplica_whenGetConnection_thenEjectedAndServedElsewhere() throws SQLException {
+
+        // given - precondition or setup
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        given(replicaOne.getConnection()).willThrow(new SQLException("connection refused"));
+        given(replicaTwo.getConnection()).willReturn(replicaTwoConnection);
+        given(primary.getConnection()).willReturn(primaryConnection);
+
+        // when - action or behaviour
+        Connection fallback = routingDataSource.getConnection();
+        Connection next = routingDataSource.getConnection();
+        Connection afterNext = routingDataSource.getConnection();
+
+        // then - verify output
+        assertThat(fallback).isSameAs(primaryConnection);
+        assertThat(next).isSameAs(replicaTwoConnection);
+        assertThat(afterNext).isSameAs(replicaTwoConnection);
+        assertThat(routingDataSource.healthyReplicaCount()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,30 @@
+package io.todimu.springboottesting.config;
+
+import io.todimu.springboottesting.dto.EmployeeView;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class StartupRuntimeHintsTests {
+
+    @Test
+    @DisplayName("native image hints cover the JPQL projection and the vendor migrations")
+    public void givenStartupHints_whenRegistered_thenProjectionAndMigrationsCovered() {
+
+        // given - precondition or setup
+        RuntimeHints hints = new RuntimeHints();
+
+        // when - action or behaviour
+        new StartupConfig.StartupRuntimeHints().registerHints(hints, getClass().getClassLoader());
+
+        // then - verify output
+        assertThat(RuntimeHintsPredicates.reflection().onType(EmployeeView.class)
+                .withMemberCategory(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.resource().forResource("db/migration/h2/V1__create_employee.sql")).accepts(hints);
+        assertThat(RuntimeHintsPredicates.resource().forResource("db/migration/mysql/V2__add_employee_name_index.sql")).accepts(hints);
+    }
+}
@@ -0,0 +1,59 @@
+package io.todimu.springboottesting.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class VirtualThreadConfigTests {
+
+    @Test
+    @DisplayName("the JDBC semaphore behind replica routing is sized to all of its pools")
+    public void givenRoutingBehindLazyProxy_whenPoolCapacity_thenSumOfPools() {
+
+        // given - precondition or setup
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("replica-0", pool(8));
+        replicas.put("replica-1", pool(8));
+
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(pool(20), replicas);
+        routing.afterPropertiesSet();
+
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy();
+        proxy.setTargetDataSource(routing);
+
+        // when - action or behaviour
+        int capacity = VirtualThreadConfig.poolCapacity(proxy);
+
+        // then - verify output
+        assertThat(capacity).isEqualTo(36);
+        routing.shutdown();
+    }
+
+    @Test
+    @DisplayName("a datasource without a visible pool falls back to Hikari's default size")
+    public void givenUnpooledDataSource_whenPoolCapacity_thenDefaultPoolSize() {
+
+        // given - precondition or setup
+        DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:unpooled");
+
+        // when - action or behaviour
+        int capacity = VirtualThreadConfig.poolCapacity(dataSource);
+
+        // then - verify output
+        assertThat(capacity).isEqualTo(10);
+    }
+
+    private static HikariDataSource pool(int maximumPoolSize) {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setMaximumPoolSize(maximumPoolSize);
+        return pool;
+    }
+}
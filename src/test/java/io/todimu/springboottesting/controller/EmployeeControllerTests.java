@@ -1,7 +1,15 @@
 package io.todimu.springboottesting.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.todimu.springboottesting.config.BinaryFormatsConfig;
+import io.todimu.springboottesting.dto.EmployeePage;
+import io.todimu.springboottesting.dto.EmployeeSearchPage;
+import io.todimu.springboottesting.dto.EmployeeView;
+import io.todimu.springboottesting.dto.IngestionStatus;
+import io.todimu.springboottesting.exception.ResourceConflictException;
+import io.todimu.springboottesting.exception.TooManyRequestsException;
 import io.todimu.springboottesting.model.Employee;
+import io.todimu.springboottesting.service.EmployeeIngestionService;
 import io.todimu.springboottesting.service.EmployeeService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -9,24 +17,35 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
 
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.CoreMatchers.is;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
-import static org.mockito.BDDMockito.willDoNothing;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest
+@Import(BinaryFormatsConfig.class)
 public class EmployeeControllerTests {
 
     @Autowired private MockMvc mockMvc;
@@ -35,6 +54,8 @@ public class EmployeeControllerTests {
 
     @MockBean private EmployeeService employeeService;
 
+    @MockBean private EmployeeIngestionService employeeIngestionService;
+
     private Employee savedEmployee;
 
     @BeforeEach
@@ -72,15 +93,112 @@ public class EmployeeControllerTests {
     }
 
     @Test
-    @DisplayName("get all employees")
-    public void givenListOfEmployees_whenGetAllEmployees_thenReturnEmployeeList() throws Exception {
+    @DisplayName("save a batch of employees")
+    public void givenEmployeeList_whenCreateEmployees_thenSavedEmployees() throws Exception {
 
         // given - precondition or setup
         List<Employee> employeeList = new ArrayList<>();
         employeeList.add(Employee.builder().firstName("Todimu").lastName("Isewon").email("todi@gmail.com").build());
         employeeList.add(Employee.builder().firstName("Lani").lastName("Isewon").email("lani@gmail.com").build());
 
-        given(employeeService.getAllEmployees()).willReturn(employeeList);
+        given(employeeService.saveEmployees(anyList()))
+                .willAnswer((invocation) -> invocation.getArgument(0));
+
+        // when - action or behaviour
+        ResultActions response = mockMvc.perform(post("/api/employees/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(employeeList)));
+
+        // then - verify output
+        response.andDo(print())
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.size()", is(employeeList.size())))
+                .andExpect(jsonPath("$[1].email", is("lani@gmail.com")));
+    }
+
+    @Test
+    @DisplayName("save employee with an email that already exists")
+    public void givenExistingEmail_whenCreateEmployee_thenReturn409() throws Exception {
+
+        // given - precondition or setup
+        given(employeeService.saveEmployee(any(Employee.class)))
+                .willThrow(new ResourceConflictException("Employee already exists with given email:" + savedEmployee.getEmail()));
+
+        // when - action or behaviour
+        ResultActions response = mockMvc.perform(post("/api/employees")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(savedEmployee)));
+
+        // then - verify output
+        response.andDo(print())
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    @DisplayName("submit employee for asynchronous creation")
+    public void givenEmployeeObject_whenSubmitEmployee_thenReturnAccepted() throws Exception {
+
+        // given - precondition or setup
+        IngestionStatus status = IngestionStatus.queued("abc", Instant.now());
+        given(employeeIngestionService.submit(any(Employee.class))).willReturn(status);
+
+        // when - action or behaviour
+        ResultActions response = mockMvc.perform(post("/api/employees/async")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(savedEmployee)));
+
+        // then - verify output
+        response.andDo(print())
+                .andExpect(status().isAccepted())
+                .andExpect(header().string(HttpHeaders.LOCATION, "http://localhost/api/employees/async/abc"))
+                .andExpect(jsonPath("$.state", is("QUEUED")));
+    }
+
+    @Test
+    @DisplayName("submit employee while the ingestion queue is full")
+    public void givenFullQueue_whenSubmitEmployee_thenReturnTooManyRequests() throws Exception {
+
+        // given - precondition or setup
+        given(employeeIngestionService.submit(any(Employee.class))).willThrow(new TooManyRequestsException("full"));
+
+        // when - action or behaviour
+        ResultActions response = mockMvc.perform(post("/api/employees/async")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(savedEmployee)));
+
+        // then - verify output
+        response.andDo(print())
+                .andExpect(status().isTooManyRequests());
+    }
+
+    @Test
+    @DisplayName("get the status of an asynchronous submission")
+    public void givenTrackingId_whenGetSubmissionStatus_thenReturnStatus() throws Exception {
+
+        // given - precondition or setup
+        IngestionStatus status = IngestionStatus.queued("abc", Instant.now()).created(7L);
+        given(employeeIngestionService.getStatus("abc")).willReturn(Optional.of(status));
+
+        // when - action or behaviour
+        ResultActions response = mockMvc.perform(get("/api/employees/async/{trackingId}", "abc"));
+
+        // then - verify output
+        response.andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.state", is("CREATED")))
+                .andExpect(jsonPath("$.employeeId", is(7)));
+    }
+
+    @Test
+    @DisplayName("get all employees")
+    public void givenListOfEmployees_whenGetAllEmployees_thenReturnEmployeeList() throws Exception {
+
+        // given - precondition or setup
+        List<EmployeeView> employeeList = new ArrayList<>();
+        employeeList.add(new EmployeeView(1L, "Todimu", "Isewon", "todi@gmail.com", 0L, null));
+        employeeList.add(new EmployeeView(2L, "Lani", "Isewon", "lani@gmail.com", 0L, null));
+
+        given(employeeService.getEmployees(null, 50)).willReturn(new EmployeePage(employeeList, "next"));
 
         // when - action or behaviour
         ResultActions response = mockMvc.perform(get("/api/employees"));
@@ -88,7 +206,8 @@ public class EmployeeControllerTests {
         // then - verify output
         response.andDo(print())
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.size()", is(employeeList.size())));
+                .andExpect(jsonPath("$.employees.size()", is(employeeList.size())))
+                .andExpect(jsonPath("$.nextCursor", is("next")));
     }
 
     @Test
@@ -113,6 +232,91 @@ public class EmployeeControllerTests {
                 .andExpect(jsonPath("$.email", is(savedEmployee.getEmail())));
     }
 
+    @Test
+    @DisplayName("get unchanged employee by id with If-None-Match")
+    public void givenMatchingETag_whenGetEmployeeById_thenReturn304() throws Exception {
+
+        // given - precondition or setup
+        long employeeId = 1L;
+        savedEmployee.setVersion(3L);
+        given(employeeService.getEmployeeById(employeeId)).willReturn(Optional.of(savedEmployee));
+
+        // when - action or behaviour
+        ResultActions response = mockMvc.perform(get("/api/employees/{id}", employeeId)
+                .header(HttpHeaders.IF_NONE_MATCH, "\"3-json\""));
+
+        // then - verify output
+        response.andDo(print())
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3-json\""))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT))
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    @DisplayName("the JSON tag of an unchanged employee does not answer a CBOR request with 304")
+    public void givenJsonETag_whenGetEmployeeByIdAsCbor_thenReturn200WithCborETag() throws Exception {
+
+        // given - precondition or setup
+        long employeeId = 1L;
+        savedEmployee.setVersion(3L);
+        given(employeeService.getEmployeeById(employeeId)).willReturn(Optional.of(savedEmployee));
+
+        // when - action or behaviour
+        ResultActions response = mockMvc.perform(get("/api/employees/{id}", employeeId)
+                .accept(MediaType.APPLICATION_CBOR)
+                .header(HttpHeaders.IF_NONE_MATCH, "\"3-json\""));
+
+        // then - verify output
+        response.andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3-cbor\""))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT));
+    }
+
+    @Test
+    @DisplayName("get employee by id as CBOR")
+    public void givenCborAccept_whenGetEmployeeById_thenReturnCborEmployee() throws Exception {
+
+        // given - precondition or setup
+        long employeeId = 1L;
+        given(employeeService.getEmployeeById(employeeId)).willReturn(Optional.of(savedEmployee));
+
+        // when - action or behaviour
+        ResultActions response = mockMvc.perform(get("/api/employees/{id}", employeeId)
+                .accept(MediaType.APPLICATION_CBOR));
+
+        // then - verify output
+        byte[] body = response.andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+        Employee employee = Jackson2ObjectMapperBuilder.cbor().build().readValue(body, Employee.class);
+        assertThat(employee.getEmail()).isEqualTo(savedEmployee.getEmail());
+    }
+
+    @Test
+    @DisplayName("save employee sent as Smile")
+    public void givenSmileBody_whenCreateEmployee_thenSavedEmployee() throws Exception {
+
+        // given - precondition or setup
+        given(employeeService.saveEmployee(any(Employee.class)))
+                .willAnswer((invocation) -> invocation.getArgument(0));
+        byte[] body = Jackson2ObjectMapperBuilder.smile().build().writeValueAsBytes(savedEmployee);
+
+        // when - action or behaviour
+        ResultActions response = mockMvc.perform(post("/api/employees")
+                .contentType(BinaryFormatsConfig.APPLICATION_SMILE)
+                .content(body));
+
+        // then - verify output
+        response.andDo(print())
+                .andExpect(status().isCreated())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.email", is(savedEmployee.getEmail())));
+    }
+
     @Test
     @DisplayName("get employee by id negative scenario with invalid id")
     public void givenInvalidEmployeeId_whenGetEmployeeById_thenReturnEmpty() throws Exception {
@@ -131,6 +335,63 @@ public class EmployeeControllerTests {
 
     }
 
+    @Test
+    @DisplayName("get employees by ids")
+    public void givenEmployeeIds_whenGetEmployeesByIds_thenReturnEmployeeList() throws Exception {
+
+        // given - precondition or setup
+        List<EmployeeView> employeeList = new ArrayList<>();
+        employeeList.add(new EmployeeView(2L, "Lani", "Isewon", "lani@gmail.com", 0L, null));
+        employeeList.add(new EmployeeView(1L, "Todimu", "Isewon", "todi@gmail.com", 0L, null));
+
+        given(employeeService.getEmployeesByIds(List.of(2L, 1L))).willReturn(employeeList);
+
+        // when - action or behaviour
+        ResultActions response = mockMvc.perform(get("/api/employees").param("ids", "2,1"));
+
+        // then - verify output
+        response.andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.size()", is(employeeList.size())))
+                .andExpect(jsonPath("$[0].id", is(2)))
+                .andExpect(jsonPath("$[1].id", is(1)));
+    }
+
+    @Test
+    @DisplayName("get employee by email")
+    public void givenEmployeeEmail_whenGetEmployeeByEmail_thenReturnEmployeeObject() throws Exception {
+
+        // given - precondition or setup
+        given(employeeService.getEmployeeByEmail(savedEmployee.getEmail())).willReturn(Optional.of(savedEmployee));
+
+        // when - action or behaviour
+        ResultActions response = mockMvc.perform(get("/api/employees").param("email", savedEmployee.getEmail()));
+
+        // then - verify output
+        response.andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.firstName", is(savedEmployee.getFirstName())))
+                .andExpect(jsonPath("$.email", is(savedEmployee.getEmail())));
+    }
+
+    @Test
+    @DisplayName("search employees by name prefix")
+    public void givenQuery_whenSearchEmployees_thenReturnSearchPage() throws Exception {
+
+        // given - precondition or setup
+        List<EmployeeView> hits = List.of(new EmployeeView(1L, "Todimu", "Isewon", "todi@gmail.com", 0L, null));
+        given(employeeService.searchEmployees("tod", 0, 20)).willReturn(new EmployeeSearchPage(hits, 1, 0, 20));
+
+        // when - action or behaviour
+        ResultActions response = mockMvc.perform(get("/api/employees/search").param("q", "tod"));
+
+        // then - verify output
+        response.andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total", is(1)))
+                .andExpect(jsonPath("$.employees[0].firstName", is("Todimu")));
+    }
+
     @Test
     @DisplayName("update employee positive scenario")
     public void givenUpdatedEmployee_whenUpdateEmployee_thenReturnUpdatedEmployeeObject() throws Exception {
@@ -161,6 +422,46 @@ public class EmployeeControllerTests {
                 .andExpect(jsonPath("$.email", is(updatedEmployee.getEmail())));
     }
 
+    @Test
+    @DisplayName("update employee with a stale If-Match")
+    public void givenStaleIfMatch_whenUpdateEmployee_thenReturn412() throws Exception {
+
+        // given - precondition or setup
+        long employeeId = 1L;
+        savedEmployee.setVersion(4L);
+        given(employeeService.getEmployeeById(employeeId)).willReturn(Optional.of(savedEmployee));
+
+        // when - action or behaviour
+        ResultActions response = mockMvc.perform(put("/api/employees/{id}", employeeId)
+                .header(HttpHeaders.IF_MATCH, "\"3-json\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(savedEmployee)));
+
+        // then - verify output
+        response.andDo(print())
+                .andExpect(status().isPreconditionFailed());
+        verify(employeeService, never()).updateEmployee(any(Employee.class));
+    }
+
+    @Test
+    @DisplayName("delete employee with a matching If-Match")
+    public void givenMatchingIfMatch_whenDeleteEmployee_thenDeletesThatVersion() throws Exception {
+
+        // given - precondition or setup
+        long employeeId = 1L;
+        savedEmployee.setVersion(3L);
+        given(employeeService.getEmployeeById(employeeId)).willReturn(Optional.of(savedEmployee));
+        given(employeeService.deleteEmployee(employeeId, 3L)).willReturn(true);
+
+        // when - action or behaviour
+        ResultActions response = mockMvc.perform(delete("/api/employees/{id}", employeeId)
+                .header(HttpHeaders.IF_MATCH, "\"3-cbor\""));
+
+        // then - verify output
+        response.andDo(print())
+                .andExpect(status().isOk());
+    }
+
     @Test
     @DisplayName("update employee negative scenario")
     public void givenUpdatedEmployee_whenUpdateEmployee_thenReturnException() throws Exception {
@@ -186,13 +487,50 @@ public class EmployeeControllerTests {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    @DisplayName("patch employee positive scenario")
+    public void givenPartialEmployee_whenPatchEmployee_thenReturn204() throws Exception {
+
+        // given - precondition or setup
+        long employeeId = 1L;
+        given(employeeService.patchEmployee(eq(employeeId), any(Employee.class))).willReturn(true);
+
+        // when - action or behaviour
+        ResultActions response = mockMvc.perform(patch("/api/employees/{id}", employeeId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"firstName\":\"Lani\",\"version\":0}"));
+
+        // then - verify output
+        response.andDo(print())
+                .andExpect(status().isNoContent());
+    }
+
+    @Test
+    @DisplayName("patch employee with a stale version")
+    public void givenStaleVersion_whenPatchEmployee_thenReturn409() throws Exception {
+
+        // given - precondition or setup
+        long employeeId = 1L;
+        given(employeeService.patchEmployee(eq(employeeId), any(Employee.class)))
+                .willThrow(new ResourceConflictException("Employee was modified concurrently, expected version:0"));
+
+        // when - action or behaviour
+        ResultActions response = mockMvc.perform(patch("/api/employees/{id}", employeeId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"firstName\":\"Lani\",\"version\":0}"));
+
+        // then - verify output
+        response.andDo(print())
+                .andExpect(status().isConflict());
+    }
+
     @Test
     @DisplayName("delete employee")
     public void givenEmployeeId_whenDeleteUser_thenReturn200() throws Exception {
 
         // given - precondition or setup
         long employeeId = 1L;
-        willDoNothing().given(employeeService).deleteEmployee(employeeId);
+        given(employeeService.deleteEmployee(employeeId)).willReturn(true);
 
         // when - action or behaviour
         ResultActions response = mockMvc.perform(delete("/api/employees/{id}", employeeId));
@@ -201,4 +539,36 @@ public class EmployeeControllerTests {
         response.andDo(print())
                 .andExpect(status().isOk());
     }
+
+    @Test
+    @DisplayName("delete employee that does not exist")
+    public void givenUnknownEmployeeId_whenDeleteUser_thenReturn404() throws Exception {
+
+        // given - precondition or setup
+        long employeeId = 1L;
+        given(employeeService.deleteEmployee(employeeId)).willReturn(false);
+
+        // when - action or behaviour
+        ResultActions response = mockMvc.perform(delete("/api/employees/{id}", employeeId));
+
+        // then - verify output
+        response.andDo(print())
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("bulk delete employees by ids")
+    public void givenEmployeeIds_whenDeleteEmployees_thenReturnDeletedCount() throws Exception {
+
+        // given - precondition or setup
+        given(employeeService.deleteEmployees(List.of(1L, 2L, 3L))).willReturn(2);
+
+        // when - action or behaviour
+        ResultActions response = mockMvc.perform(delete("/api/employees").param("ids", "1,2,3"));
+
+        // then - verify output
+        response.andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.deleted", is(2)));
+    }
 }
@@ -0,0 +1,19 @@
+package io.todimu.springboottesting.integration;
+
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Full-context tests against the in-memory {@code test} profile. Subclasses must not add configuration of their own
+ * (no {@code @MockBean}, properties or profiles) so they all share one cached application context. Requests go
+ * through MockMvc on the test thread, inside a transaction that is rolled back after every test, which keeps
+ * classes running in parallel out of each other's rows without any cleanup.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Transactional
+public abstract class AbstractIntegrationTest {
+}
@@ -2,16 +2,31 @@ package io.todimu.springboottesting.integration;
 
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.DockerClientFactory;
 import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Testcontainers;
 
+import java.util.Map;
+
+/**
+ * One MySQL container for every test class extending this, started on first use and left to Ryuk to remove at the
+ * end of the run. Data lives on tmpfs and the image is pinned so it stays cached; with
+ * {@code testcontainers.reuse.enable=true} in {@code ~/.testcontainers.properties} it even survives between runs.
+ * Without Docker the subclasses are skipped, the H2 backed tests still run.
+ */
+@Testcontainers(disabledWithoutDocker = true)
 public abstract class AbstractionBasedBaseTest {
 
-    static  final MySQLContainer MY_SQL_CONTAINER;
+    static  final MySQLContainer<?> MY_SQL_CONTAINER;
 
     static {
-        MY_SQL_CONTAINER = new MySQLContainer("mysql:latest");
+        MY_SQL_CONTAINER = new MySQLContainer<>("mysql:8.0")
+                .withTmpFs(Map.of("/var/lib/mysql", "rw"))
+                .withReuse(true);
 
-        MY_SQL_CONTAINER.start();
+        if (DockerClientFactory.instance().isDockerAvailable()) {
+            MY_SQL_CONTAINER.start();
+        }
     }
 
     @DynamicPropertySource
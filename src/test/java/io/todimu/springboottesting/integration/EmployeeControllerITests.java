@@ -3,13 +3,12 @@ package io.todimu.springboottesting.integration;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.todimu.springboottesting.model.Employee;
 import io.todimu.springboottesting.repository.EmployeeRepository;
-import org.junit.jupiter.api.AfterEach;
+import io.todimu.springboottesting.sql.SqlStatementCounter;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
-import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
@@ -27,9 +26,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
-@AutoConfigureMockMvc
-@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
-public class EmployeeControllerITests {
+public class EmployeeControllerITests extends AbstractIntegrationTest {
 
     @Autowired private MockMvc mockMvc;
 
@@ -37,12 +34,12 @@ public class EmployeeControllerITests {
 
     @Autowired private ObjectMapper objectMapper;
 
+    @Autowired private EntityManager entityManager;
+
     private Employee savedEmployee;
 
     @BeforeEach
     void setup() {
-        employeeRepository.deleteAll();
-
         savedEmployee = Employee.builder()
                 .firstName("Todimu")
                 .lastName("Isewon")
@@ -50,11 +47,6 @@ public class EmployeeControllerITests {
                 .build();
     }
 
-    @AfterEach
-    public void tearDown(){
-        employeeRepository.deleteAll();
-    }
-
     @Test
     @DisplayName("save employee")
     public void givenEmployeeObject_whenCreateEmployee_thenSavedEmployee() throws Exception {
@@ -74,6 +66,29 @@ public class EmployeeControllerITests {
                 .andExpect(jsonPath("$.email", is(savedEmployee.getEmail())));
     }
 
+    @Test
+    @DisplayName("save employee with an email that already exists")
+    public void givenExistingEmail_whenCreateEmployee_thenReturn409() throws Exception {
+
+        // given - precondition or setup
+        employeeRepository.saveAndFlush(savedEmployee);
+
+        Employee duplicate = Employee.builder()
+                .firstName("Lani")
+                .lastName("Isewon")
+                .email(savedEmployee.getEmail())
+                .build();
+
+        // when - action or behaviour
+        ResultActions response = mockMvc.perform(post("/api/employees")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(duplicate)));
+
+        // then - verify output
+        response.andDo(print())
+                .andExpect(status().isConflict());
+    }
+
     @Test
     @DisplayName("get all employees")
     public void givenListOfEmployees_whenGetAllEmployees_thenReturnEmployeeList() throws Exception {
@@ -91,7 +106,8 @@ public class EmployeeControllerITests {
         // then - verify output
         response.andDo(print())
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.size()", is(employeeList.size())));
+                .andExpect(jsonPath("$.employees.size()", is(employeeList.size())))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
     }
 
     @Test
@@ -117,7 +133,7 @@ public class EmployeeControllerITests {
     public void givenInvalidEmployeeId_whenGetEmployeeById_thenReturnEmpty() throws Exception {
 
         // given - precondition or setup
-        long employeeId = 1L;
+        long employeeId = Long.MAX_VALUE;
         employeeRepository.save(savedEmployee);
 
         // when - action or behaviour
@@ -162,7 +178,7 @@ public class EmployeeControllerITests {
     public void givenUpdatedEmployee_whenUpdateEmployee_thenReturnException() throws Exception {
 
         // given - precondition or setup
-        long employeeId = 1L;
+        long employeeId = Long.MAX_VALUE;
 
         Employee updatedEmployee = Employee.builder()
                 .firstName("Lani")
@@ -198,4 +214,85 @@ public class EmployeeControllerITests {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    @DisplayName("create employee costs a single insert")
+    public void givenEmployeeObject_whenCreateEmployee_thenIssuesOneInsert() throws Exception {
+
+        // given - precondition or setup
+        SqlStatementCounter.reset();
+
+        // when - action or behaviour
+        ResultActions response = mockMvc.perform(post("/api/employees")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(savedEmployee)));
+
+        // then - verify output
+        response.andExpect(status().isCreated());
+        SqlStatementCounter.assertStatements(0, 1, 0, 0);
+    }
+
+    @Test
+    @DisplayName("get employee by id costs a single select, a repeated read none")
+    public void givenEmployeeId_whenGetEmployeeByIdTwice_thenIssuesOneSelect() throws Exception {
+
+        // given - precondition or setup
+        employeeRepository.saveAndFlush(savedEmployee);
+        entityManager.clear();
+        SqlStatementCounter.reset();
+
+        // when - action or behaviour
+        ResultActions firstResponse = mockMvc.perform(get("/api/employees/{id}", savedEmployee.getId()));
+        ResultActions secondResponse = mockMvc.perform(get("/api/employees/{id}", savedEmployee.getId()));
+
+        // then - verify output
+        firstResponse.andExpect(status().isOk());
+        secondResponse.andExpect(status().isOk());
+        SqlStatementCounter.assertStatements(1, 0, 0, 0);
+    }
+
+    @Test
+    @DisplayName("list employees costs a single select")
+    public void givenListOfEmployees_whenGetAllEmployees_thenIssuesOneSelect() throws Exception {
+
+        // given - precondition or setup
+        employeeRepository.saveAllAndFlush(List.of(savedEmployee,
+                Employee.builder().firstName("Lani").lastName("Isewon").email("lani@gmail.com").build()));
+        entityManager.clear();
+        SqlStatementCounter.reset();
+
+        // when - action or behaviour
+        ResultActions response = mockMvc.perform(get("/api/employees"));
+
+        // then - verify output
+        response.andExpect(status().isOk());
+        SqlStatementCounter.assertStatements(1, 0, 0, 0);
+        SqlStatementCounter.assertNoRepeatedSelects();
+    }
+
+    @Test
+    @DisplayName("update employee costs the merge select and a single update")
+    public void givenCachedEmployee_whenUpdateEmployee_thenIssuesOneSelectAndOneUpdate() throws Exception {
+
+        // given - precondition or setup, the read caches the employee so the controller's existence check is free
+        employeeRepository.saveAndFlush(savedEmployee);
+        mockMvc.perform(get("/api/employees/{id}", savedEmployee.getId())).andExpect(status().isOk());
+        entityManager.clear();
+        SqlStatementCounter.reset();
+
+        Employee updatedEmployee = Employee.builder()
+                .firstName("Lani")
+                .lastName("Isewon")
+                .email("todimu@gmail.com")
+                .build();
+
+        // when - action or behaviour
+        ResultActions response = mockMvc.perform(put("/api/employees/{id}", savedEmployee.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(updatedEmployee)));
+        entityManager.flush();
+
+        // then - verify output, merging the detached employee loads it again before the update
+        response.andExpect(status().isOk());
+        SqlStatementCounter.assertStatements(1, 0, 1, 0);
+    }
 }
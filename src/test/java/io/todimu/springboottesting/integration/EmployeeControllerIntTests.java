@@ -3,7 +3,6 @@ package io.todimu.springboottesting.integration;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.todimu.springboottesting.model.Employee;
 import io.todimu.springboottesting.repository.EmployeeRepository;
-import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -13,6 +12,7 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -24,7 +24,8 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @AutoConfigureMockMvc
-@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@SpringBootTest
+@Transactional
 public class EmployeeControllerIntTests extends AbstractionBasedBaseTest {
 
     @Autowired private MockMvc mockMvc;
@@ -37,8 +38,6 @@ public class EmployeeControllerIntTests extends AbstractionBasedBaseTest {
 
     @BeforeEach
     void setup() {
-        employeeRepository.deleteAll();
-
         savedEmployee = Employee.builder()
                 .firstName("Todimu")
                 .lastName("Isewon")
@@ -46,11 +45,6 @@ public class EmployeeControllerIntTests extends AbstractionBasedBaseTest {
                 .build();
     }
 
-    @AfterEach
-    public void tearDown(){
-        employeeRepository.deleteAll();
-    }
-
     @Test
     @DisplayName("save employee")
     public void givenEmployeeObject_whenCreateEmployee_thenSavedEmployee() throws Exception {
@@ -87,7 +81,8 @@ public class EmployeeControllerIntTests extends AbstractionBasedBaseTest {
         // then - verify output
         response.andDo(print())
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.size()", is(employeeList.size())));
+                .andExpect(jsonPath("$.employees.size()", is(employeeList.size())))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
     }
 
     @Test
@@ -113,7 +108,7 @@ public class EmployeeControllerIntTests extends AbstractionBasedBaseTest {
     public void givenInvalidEmployeeId_whenGetEmployeeById_thenReturnEmpty() throws Exception {
 
         // given - precondition or setup
-        long employeeId = 1L;
+        long employeeId = Long.MAX_VALUE;
         employeeRepository.save(savedEmployee);
 
         // when - action or behaviour
@@ -158,7 +153,7 @@ public class EmployeeControllerIntTests extends AbstractionBasedBaseTest {
     public void givenUpdatedEmployee_whenUpdateEmployee_thenReturnException() throws Exception {
 
         // given - precondition or setup
-        long employeeId = 1L;
+        long employeeId = Long.MAX_VALUE;
 
         Employee updatedEmployee = Employee.builder()
                 .firstName("Lani")
@@ -0,0 +1,58 @@
+package io.todimu.springboottesting.integration;
+
+import io.todimu.springboottesting.model.Employee;
+import io.todimu.springboottesting.repository.EmployeeRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Scrapes {@code /actuator/prometheus} after a request. Spring Boot tests switch metric export off by default,
+ * {@link AutoConfigureObservability} turns the Prometheus registry back on, hence a context of its own, and with it
+ * a database of its own: the shared {@code test} database stays with the contexts the other classes cache and reuse.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:metrics-endpoint;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@ActiveProfiles("test")
+@Transactional
+public class MetricsEndpointITests {
+
+    @Autowired private MockMvc mockMvc;
+
+    @Autowired private EmployeeRepository employeeRepository;
+
+    @Test
+    @DisplayName("prometheus endpoint exposes the employee.service timers")
+    public void givenServiceCall_whenScrapePrometheus_thenEmployeeServiceTimersExposed() throws Exception {
+
+        // given - precondition or setup
+        Employee employee = employeeRepository.save(Employee.builder()
+                .firstName("Todimu")
+                .lastName("Isewon")
+                .email("todimu@gmail.com")
+                .build());
+        mockMvc.perform(get("/api/employees/{id}", employee.getId())).andExpect(status().isOk());
+
+        // when - action or behaviour
+        ResultActions response = mockMvc.perform(get("/actuator/prometheus"));
+
+        // then - verify output
+        response.andExpect(status().isOk())
+                .andExpect(content().string(containsString("employee_service_seconds_count{")))
+                .andExpect(content().string(containsString("method=\"getEmployeeById\"")))
+                .andExpect(content().string(containsString("employee_service_seconds_bucket{")));
+    }
+}
@@ -0,0 +1,171 @@
+package io.todimu.springboottesting.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.todimu.springboottesting.config.ReadYourWritesFilter;
+import io.todimu.springboottesting.dto.EmployeePage;
+import io.todimu.springboottesting.dto.EmployeeView;
+import io.todimu.springboottesting.model.Employee;
+import io.todimu.springboottesting.repository.EmployeeRepository;
+import io.todimu.springboottesting.service.EmployeeService;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Read/write splitting against three in-memory H2 databases: the primary gets its schema from the migrations, the two
+ * "replicas" are filled by hand with rows the primary does not have, so every answer shows where it was read from.
+ */
+@AutoConfigureMockMvc
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing-primary" + ReplicaRoutingIntTests.H2_SETTINGS,
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "app.datasource.routing.enabled=true",
+        "app.datasource.routing.health-check-interval=1h",
+        "app.datasource.routing.replicas[0].url=jdbc:h2:mem:routing-replica-0" + ReplicaRoutingIntTests.H2_SETTINGS,
+        "app.datasource.routing.replicas[1].url=jdbc:h2:mem:routing-replica-1" + ReplicaRoutingIntTests.H2_SETTINGS
+})
+public class ReplicaRoutingIntTests {
+
+    static final String H2_SETTINGS = ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    private static final String REPLICA_EMAIL = "replica@gmail.com";
+
+    @Autowired private MockMvc mockMvc;
+
+    @Autowired private EmployeeService employeeService;
+
+    @Autowired private EmployeeRepository employeeRepository;
+
+    @Autowired private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setup() {
+        employeeRepository.deleteAll();
+
+        for (int i = 0; i < 2; i++) {
+            JdbcTemplate replica = replica(i);
+            replica.execute("create table if not exists employee (id bigint primary key, first_name varchar(255), "
+                    + "last_name varchar(255), email varchar(255), version bigint, last_modified timestamp(6))");
+            replica.update("delete from employee");
+            replica.update("insert into employee values (1000, 'Replica', 'Isewon', ?, 0, null)", REPLICA_EMAIL);
+        }
+    }
+
+    @AfterEach
+    public void tearDown() {
+        employeeRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("read-only service reads are served by the replicas")
+    public void givenRowOnlyOnReplicas_whenGetEmployees_thenReadFromReplica() {
+
+        // given - precondition or setup
+        employeeService.saveEmployee(Employee.builder().firstName("Todimu").lastName("Isewon").email("todi@gmail.com").build());
+
+        // when - action or behaviour
+        EmployeePage first = employeeService.getEmployees(null, 50);
+        EmployeePage second = employeeService.getEmployees(null, 50);
+
+        // then - verify output
+        assertThat(first.employees()).extracting(EmployeeView::email).containsExactly(REPLICA_EMAIL);
+        assertThat(second.employees()).extracting(EmployeeView::email).containsExactly(REPLICA_EMAIL);
+    }
+
+    @Test
+    @DisplayName("a client reads its own write from the primary, other clients keep reading replicas")
+    public void givenClientJustWrote_whenListingEmployees_thenOnlyThatClientReadsPrimary() throws Exception {
+
+        // given - precondition or setup
+        Employee employee = Employee.builder().firstName("Lani").lastName("Isewon").email("lani@gmail.com").build();
+
+        mockMvc.perform(post("/api/employees")
+                        .header("X-Client-Id", "writer")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(employee)))
+                .andExpect(status().isCreated());
+
+        // when - action or behaviour
+        String writerView = mockMvc.perform(get("/api/employees").header("X-Client-Id", "writer"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        // then - verify output
+        assertThat(writerView).contains("lani@gmail.com").doesNotContain(REPLICA_EMAIL);
+
+        mockMvc.perform(get("/api/employees").header("X-Client-Id", "reader"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.employees[*].email", hasItem(REPLICA_EMAIL)))
+                .andExpect(jsonPath("$.employees[*].email", not(hasItem("lani@gmail.com"))));
+    }
+
+    @Test
+    @DisplayName("the write marker pins reads on whichever instance the client lands on next")
+    public void givenWriteMarker_whenReadingUnderAnotherClientId_thenReadFromPrimary() throws Exception {
+
+        // given - precondition or setup
+        Employee employee = Employee.builder().firstName("Sola").lastName("Isewon").email("sola@gmail.com").build();
+
+        Cookie lastWrite = mockMvc.perform(post("/api/employees")
+                        .header("X-Client-Id", "writer")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(employee)))
+                .andExpect(status().isCreated())
+                .andExpect(header().exists(ReadYourWritesFilter.LAST_WRITE_HEADER))
+                .andReturn().getResponse().getCookie(ReadYourWritesFilter.LAST_WRITE_COOKIE);
+
+        // when - action or behaviour, an id this instance has never seen stands in for another instance
+        String view = mockMvc.perform(get("/api/employees").header("X-Client-Id", "unknown-to-this-instance").cookie(lastWrite))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        // then - verify output
+        assertThat(lastWrite).isNotNull();
+        assertThat(view).contains("sola@gmail.com").doesNotContain(REPLICA_EMAIL);
+    }
+
+    @Test
+    @DisplayName("a write without client id or marker does not pin other requests from the same address")
+    public void givenAnonymousWrite_whenAnonymousRead_thenReadFromReplica() throws Exception {
+
+        // given - precondition or setup, MockMvc requests all share one remote address, as behind a load balancer
+        Employee employee = Employee.builder().firstName("Kemi").lastName("Bello").email("kemi@gmail.com").build();
+
+        mockMvc.perform(post("/api/employees")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(employee)))
+                .andExpect(status().isCreated());
+
+        // when - action or behaviour
+        ResultActions response = mockMvc.perform(get("/api/employees"));
+
+        // then - verify output
+        response.andExpect(status().isOk())
+                .andExpect(jsonPath("$.employees[*].email", hasItem(REPLICA_EMAIL)))
+                .andExpect(jsonPath("$.employees[*].email", not(hasItem("kemi@gmail.com"))));
+    }
+
+    private static JdbcTemplate replica(int index) {
+        return new JdbcTemplate(new DriverManagerDataSource("jdbc:h2:mem:routing-replica-" + index + H2_SETTINGS, "sa", ""));
+    }
+}
@@ -0,0 +1,59 @@
+package io.todimu.springboottesting.load;
+
+import io.todimu.springboottesting.model.Employee;
+import io.todimu.springboottesting.service.EmployeeService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Isolated;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.PrintStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Capacity check for a release: seeds {@code load.employees} rows into embedded H2 and drives the configured mix
+ * against the running server. Excluded from the default build, run it with {@code ./mvnw -Pload-test test}.
+ */
+@Tag("load")
+@Isolated
+@ActiveProfiles("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class EmployeeApiLoadTests {
+
+    @LocalServerPort private int port;
+
+    @Autowired private EmployeeService employeeService;
+
+    @Test
+    @DisplayName("drive the configured read/write mix against every employee endpoint")
+    public void givenSeededEmployees_whenDrivingConfiguredMix_thenReportLatencyPercentiles() throws Exception {
+
+        // given - precondition or setup
+        List<Employee> seeded = LoadGenerator.seed(employeeService, Integer.getInteger("load.employees", 10_000));
+        LoadGenerator loadGenerator = new LoadGenerator(URI.create("http://localhost:" + port), seeded,
+                LoadGenerator.LoadProfile.fromSystemProperties());
+
+        // when - action or behaviour
+        LoadGenerator.LoadReport report = loadGenerator.run();
+
+        // then - verify output
+        report.print(System.out, "servlet stack");
+        Path reportFile = Path.of("target", "load-report.txt");
+        Files.createDirectories(reportFile.getParent());
+        try (PrintStream out = new PrintStream(Files.newOutputStream(reportFile))) {
+            report.print(out, "servlet stack");
+        }
+
+        assertThat(report.totalRequests()).isPositive();
+        assertThat(report.totalErrors()).isLessThanOrEqualTo(report.totalRequests() / 100);
+    }
+}
@@ -0,0 +1,363 @@
+package io.todimu.springboottesting.load;
+
+import io.todimu.springboottesting.model.Employee;
+import io.todimu.springboottesting.service.EmployeeService;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Closed-loop HTTP load generator for {@code /api/employees}: a fixed number of clients each send one request
+ * at a time, picking the endpoint from a weighted mix, and every response time is recorded in an HdrHistogram.
+ */
+public class LoadGenerator {
+
+    public enum Operation {
+        CREATE, BATCH_CREATE, ASYNC_CREATE, ASYNC_STATUS, LIST, GET_BY_ID, GET_BY_IDS, GET_BY_EMAIL, SEARCH,
+        UPDATE, PATCH, DELETE, BULK_DELETE, EXPORT
+    }
+
+    /**
+     * How hard and with what mix to drive the API. Every value can be overridden with a {@code load.*} system property,
+     * the mix as a comma separated list such as {@code load.mix=GET_BY_ID=80,CREATE=10,PATCH=10}.
+     */
+    public record LoadProfile(int clients, Duration warmup, Duration duration, Map<Operation, Integer> mix) {
+
+        public static final String DEFAULT_MIX = "GET_BY_ID=45,LIST=8,GET_BY_IDS=5,GET_BY_EMAIL=10,SEARCH=5,"
+                + "CREATE=6,BATCH_CREATE=1,ASYNC_CREATE=2,ASYNC_STATUS=2,UPDATE=5,PATCH=5,DELETE=5,BULK_DELETE=1,EXPORT=0";
+
+        public static LoadProfile fromSystemProperties() {
+            return new LoadProfile(
+                    Integer.getInteger("load.clients", 32),
+                    Duration.ofSeconds(Long.getLong("load.warmupSeconds", 5)),
+                    Duration.ofSeconds(Long.getLong("load.durationSeconds", 20)),
+                    parseMix(System.getProperty("load.mix", DEFAULT_MIX)));
+        }
+
+        static Map<Operation, Integer> parseMix(String mix) {
+            Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+            for (String entry : mix.split(",")) {
+                String[] pair = entry.trim().split("=");
+                weights.put(Operation.valueOf(pair[0].trim()), Integer.parseInt(pair[1].trim()));
+            }
+            return weights;
+        }
+    }
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private final URI baseUri;
+
+    private final List<Employee> seeded;
+
+    private final LoadProfile profile;
+
+    private final HttpClient httpClient;
+
+    private final Operation[] operations;
+
+    private final int[] cumulativeWeights;
+
+    private final Map<Operation, Histogram> latencies = new EnumMap<>(Operation.class);
+
+    private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+
+    // ids created during the run, the only ones the delete operations remove so reads keep hitting seeded rows
+    private final Queue<Long> createdIds = new ConcurrentLinkedQueue<>();
+
+    // Location of every async submission still queued, polled by ASYNC_STATUS until the background writer settles it
+    private final Queue<String> pendingSubmissions = new ConcurrentLinkedQueue<>();
+
+    private final AtomicLong emailSequence = new AtomicLong();
+
+    private volatile boolean recording;
+
+    public LoadGenerator(URI baseUri, List<Employee> seeded, LoadProfile profile) {
+        this.baseUri = baseUri;
+        this.seeded = seeded;
+        this.profile = profile;
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+
+        List<Operation> weighted = profile.mix().entrySet().stream()
+                .filter(entry -> entry.getValue() > 0)
+                .map(Map.Entry::getKey)
+                .toList();
+        this.operations = weighted.toArray(Operation[]::new);
+        this.cumulativeWeights = new int[operations.length];
+        int total = 0;
+        for (int i = 0; i < operations.length; i++) {
+            total += profile.mix().get(operations[i]);
+            cumulativeWeights[i] = total;
+        }
+
+        for (Operation operation : Operation.values()) {
+            latencies.put(operation, new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3));
+            errors.put(operation, new LongAdder());
+        }
+    }
+
+    /**
+     * Inserts {@code count} employees through the service in batches and returns them with their ids.
+     */
+    public static List<Employee> seed(EmployeeService employeeService, int count) {
+        List<Employee> seeded = new ArrayList<>(count);
+        for (int start = 0; start < count; start += 1000) {
+            List<Employee> batch = new ArrayList<>();
+            for (int i = start; i < Math.min(count, start + 1000); i++) {
+                batch.add(Employee.builder()
+                        .firstName("First" + i)
+                        .lastName("Last" + i)
+                        .email("seed" + i + "@load.io")
+                        .build());
+            }
+            seeded.addAll(employeeService.saveEmployees(batch));
+        }
+        return seeded;
+    }
+
+    public LoadReport run() throws Exception {
+        ExecutorService clients = Executors.newFixedThreadPool(profile.clients());
+        long warmupEnd = System.nanoTime() + profile.warmup().toNanos();
+        long end = warmupEnd + profile.duration().toNanos();
+
+        try {
+            List<Future<?>> running = new ArrayList<>();
+            for (int i = 0; i < profile.clients(); i++) {
+                running.add(clients.submit(() -> clientLoop(end)));
+            }
+
+            long untilWarm = warmupEnd - System.nanoTime();
+            if (untilWarm > 0) {
+                TimeUnit.NANOSECONDS.sleep(untilWarm);
+            }
+            recording = true;
+
+            for (Future<?> client : running) {
+                client.get();
+            }
+        } finally {
+            clients.shutdownNow();
+        }
+
+        Map<Operation, Long> errorCounts = errors.entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().sum(), (a, b) -> a, () -> new EnumMap<>(Operation.class)));
+        return new LoadReport(profile, latencies, errorCounts);
+    }
+
+    private void clientLoop(long end) {
+        while (System.nanoTime() < end && !Thread.currentThread().isInterrupted()) {
+            Operation operation = pickOperation();
+            long start = System.nanoTime();
+            boolean ok;
+            try {
+                ok = execute(operation);
+            } catch (IOException e) {
+                ok = false;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start);
+
+            if (recording) {
+                latencies.get(operation).recordValue(Math.min(micros, HIGHEST_TRACKABLE_MICROS));
+                if (!ok) {
+                    errors.get(operation).increment();
+                }
+            }
+        }
+    }
+
+    private Operation pickOperation() {
+        int pick = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (pick < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        return operations[operations.length - 1];
+    }
+
+    private boolean execute(Operation operation) throws IOException, InterruptedException {
+        Employee target = seeded.get(ThreadLocalRandom.current().nextInt(seeded.size()));
+
+        return switch (operation) {
+            case CREATE -> {
+                HttpResponse<String> response = send(json("POST", "/api/employees", employeeJson(nextEmail())));
+                createdIds.addAll(extractIds(response.body()));
+                yield isSuccess(response);
+            }
+            case BATCH_CREATE -> {
+                String body = "[" + employeeJson(nextEmail()) + "," + employeeJson(nextEmail()) + "," + employeeJson(nextEmail()) + "]";
+                HttpResponse<String> response = send(json("POST", "/api/employees/batch", body));
+                createdIds.addAll(extractIds(response.body()));
+                yield isSuccess(response);
+            }
+            case ASYNC_CREATE -> {
+                HttpResponse<String> response = send(json("POST", "/api/employees/async", employeeJson(nextEmail())));
+                response.headers().firstValue("Location").ifPresent(pendingSubmissions::add);
+                yield response.statusCode() == 202;
+            }
+            case ASYNC_STATUS -> {
+                String location = pendingSubmissions.poll();
+                if (location == null) {
+                    yield true;
+                }
+                HttpResponse<String> response = send(get(location));
+                if (response.body().contains("\"state\":\"QUEUED\"")) {
+                    pendingSubmissions.add(location);
+                } else {
+                    createdIds.addAll(extractIds(response.body().replace("\"employeeId\":", "\"id\":")));
+                }
+                yield isSuccess(response);
+            }
+            case LIST -> isSuccess(send(get("/api/employees?limit=50")));
+            case GET_BY_ID -> isSuccess(send(get("/api/employees/" + target.getId())));
+            case GET_BY_IDS -> {
+                StringBuilder ids = new StringBuilder();
+                for (int i = 0; i < 20; i++) {
+                    ids.append(i == 0 ? "" : ",").append(seeded.get(ThreadLocalRandom.current().nextInt(seeded.size())).getId());
+                }
+                yield isSuccess(send(get("/api/employees?ids=" + ids)));
+            }
+            case GET_BY_EMAIL -> isSuccess(send(get("/api/employees?email=" + target.getEmail())));
+            // a prefix of a seeded last name, so every search walks the index and has matches to page through
+            case SEARCH -> isSuccess(send(get("/api/employees/search?q="
+                    + target.getLastName().substring(0, target.getLastName().length() - 1))));
+            case UPDATE -> isSuccess(send(json("PUT", "/api/employees/" + target.getId(),
+                    "{\"firstName\":\"Updated\",\"lastName\":\"" + target.getLastName() + "\",\"email\":\"" + target.getEmail() + "\"}")));
+            case PATCH -> isSuccess(send(json("PATCH", "/api/employees/" + target.getId(), "{\"firstName\":\"Patched\"}")));
+            case DELETE -> {
+                Long id = createdIds.poll();
+                yield id == null || isSuccess(send(request("/api/employees/" + id).DELETE().build()));
+            }
+            case BULK_DELETE -> {
+                List<Long> ids = new ArrayList<>();
+                for (Long id = createdIds.poll(); id != null && ids.size() < 10; id = createdIds.poll()) {
+                    ids.add(id);
+                }
+                yield ids.isEmpty() || isSuccess(send(request("/api/employees?ids="
+                        + ids.stream().map(String::valueOf).collect(Collectors.joining(","))).DELETE().build()));
+            }
+            case EXPORT -> isSuccess(send(get("/api/employees/export")));
+        };
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws IOException, InterruptedException {
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(baseUri.resolve(path)).timeout(Duration.ofSeconds(30));
+    }
+
+    private HttpRequest get(String path) {
+        return request(path).GET().build();
+    }
+
+    private HttpRequest json(String method, String path, String body) {
+        return request(path)
+                .header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private String nextEmail() {
+        return "load" + emailSequence.incrementAndGet() + "-" + System.nanoTime() + "@load.io";
+    }
+
+    private static String employeeJson(String email) {
+        return "{\"firstName\":\"Load\",\"lastName\":\"Test\",\"email\":\"" + email + "\"}";
+    }
+
+    private static boolean isSuccess(HttpResponse<?> response) {
+        return response.statusCode() >= 200 && response.statusCode() < 300;
+    }
+
+    private static List<Long> extractIds(String body) {
+        List<Long> ids = new ArrayList<>();
+        int index = body.indexOf("\"id\":");
+        while (index >= 0) {
+            int start = index + 5;
+            int end = start;
+            while (end < body.length() && Character.isDigit(body.charAt(end))) {
+                end++;
+            }
+            if (end > start) {
+                ids.add(Long.parseLong(body.substring(start, end)));
+            }
+            index = body.indexOf("\"id\":", end);
+        }
+        return ids;
+    }
+
+    /**
+     * Throughput and latency percentiles per operation for the measured part of a run.
+     */
+    public record LoadReport(LoadProfile profile, Map<Operation, Histogram> latencies, Map<Operation, Long> errors) {
+
+        public long totalRequests() {
+            return latencies.values().stream().mapToLong(Histogram::getTotalCount).sum();
+        }
+
+        public long totalErrors() {
+            return errors.values().stream().mapToLong(Long::longValue).sum();
+        }
+
+        public double throughput() {
+            return totalRequests() / (double) profile.duration().toSeconds();
+        }
+
+        public Histogram combined() {
+            Histogram combined = new Histogram(HIGHEST_TRACKABLE_MICROS, 3);
+            latencies.values().forEach(combined::add);
+            return combined;
+        }
+
+        public void print(PrintStream out, String title) {
+            out.printf("%n%s: %d clients, %ds measured%n", title, profile.clients(), profile.duration().toSeconds());
+            out.printf("%-13s %10s %10s %10s %10s %10s %10s %8s%n", "operation", "requests", "req/s", "p50(ms)", "p99(ms)", "p999(ms)", "max(ms)", "errors");
+            latencies.forEach((operation, histogram) -> {
+                if (histogram.getTotalCount() > 0) {
+                    printRow(out, operation.name(), histogram, errors.get(operation));
+                }
+            });
+            printRow(out, "TOTAL", combined(), totalErrors());
+        }
+
+        private void printRow(PrintStream out, String name, Histogram histogram, long errorCount) {
+            out.printf("%-13s %10d %10.1f %10.2f %10.2f %10.2f %10.2f %8d%n",
+                    name,
+                    histogram.getTotalCount(),
+                    histogram.getTotalCount() / (double) profile.duration().toSeconds(),
+                    histogram.getValueAtPercentile(50) / 1000.0,
+                    histogram.getValueAtPercentile(99) / 1000.0,
+                    histogram.getValueAtPercentile(99.9) / 1000.0,
+                    histogram.getMaxValue() / 1000.0,
+                    errorCount);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package io.todimu.springboottesting.load;
+
+import io.todimu.springboottesting.SpringBootTestingApplication;
+import io.todimu.springboottesting.model.Employee;
+import io.todimu.springboottesting.service.EmployeeService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Isolated;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Runs the same high-concurrency mix against the platform thread pool and against virtual threads, one server
+ * after the other, and prints both reports side by side. Needs a Java 21+ runtime, run with
+ * {@code ./mvnw -Pjava21,load-test test -Dtest=ThreadModeLoadComparisonTests}.
+ */
+@Tag("load")
+@Isolated
+public class ThreadModeLoadComparisonTests {
+
+    @Test
+    @DisplayName("compare platform and virtual thread request execution at high concurrency")
+    public void givenHighConcurrency_whenComparingThreadModes_thenReportBoth() throws Exception {
+
+        // given - precondition or setup
+        assumeTrue(Runtime.version().feature() >= 21, "virtual threads need Java 21+");
+        LoadGenerator.LoadProfile profile = new LoadGenerator.LoadProfile(
+                Integer.getInteger("load.clients", 512),
+                Duration.ofSeconds(Long.getLong("load.warmupSeconds", 5)),
+                Duration.ofSeconds(Long.getLong("load.durationSeconds", 20)),
+                LoadGenerator.LoadProfile.parseMix(System.getProperty("load.mix", LoadGenerator.LoadProfile.DEFAULT_MIX)));
+
+        // when - action or behaviour
+        LoadGenerator.LoadReport platform = runAgainst(false, profile);
+        LoadGenerator.LoadReport virtual = runAgainst(true, profile);
+
+        // then - verify output
+        platform.print(System.out, "platform threads");
+        virtual.print(System.out, "virtual threads");
+
+        assertThat(platform.totalRequests()).isPositive();
+        assertThat(virtual.totalRequests()).isPositive();
+    }
+
+    private static LoadGenerator.LoadReport runAgainst(boolean virtualThreads, LoadGenerator.LoadProfile profile) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(SpringBootTestingApplication.class)
+                .profiles("load")
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                        "app.threads.virtual.enabled=" + virtualThreads)
+                .run()) {
+
+            List<Employee> seeded = LoadGenerator.seed(context.getBean(EmployeeService.class), Integer.getInteger("load.employees", 10_000));
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+
+            return new LoadGenerator(URI.create("http://localhost:" + port), seeded, profile).run();
+        }
+    }
+}
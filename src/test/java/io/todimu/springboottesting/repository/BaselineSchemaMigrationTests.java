@@ -0,0 +1,112 @@
+package io.todimu.springboottesting.repository;
+
+import io.todimu.springboottesting.model.Employee;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Starts against a database in the shape the original entity left behind with {@code ddl-auto=update}: an IDENTITY
+ * id and nothing else but the three name and email columns. Flyway baselines it at V1, the later migrations have to
+ * bring it up to the current mapping before Hibernate validates it. The last test drives Flyway by hand to put a row
+ * without a version in front of V4.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=" + BaselineSchemaMigrationTests.URL,
+        "spring.datasource.username=sa",
+        "spring.datasource.password="
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+public class BaselineSchemaMigrationTests {
+
+    static final String URL = "jdbc:h2:mem:baseline-schema;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    private static final long HIGHEST_BASELINE_ID = 120;
+
+    // created before the context, so Flyway finds a populated database without a schema history
+    static {
+        JdbcTemplate baseline = new JdbcTemplate(new DriverManagerDataSource(URL, "sa", ""));
+        baseline.execute("create table employee (id bigint generated by default as identity, email varchar(255) not null, "
+                + "first_name varchar(255) not null, last_name varchar(255) not null, primary key (id))");
+        baseline.update("insert into employee (id, email, first_name, last_name) values (1, 'todimu@gmail.com', 'Todimu', 'Isewon')");
+        baseline.update("insert into employee (id, email, first_name, last_name) values (?, 'lani@gmail.com', 'Lani', 'Isewon')",
+                HIGHEST_BASELINE_ID);
+    }
+
+    @Autowired private EmployeeRepository employeeRepository;
+
+    @Test
+    @DisplayName("rows from the baseline schema get version 0 and can be updated")
+    public void givenBaselineRow_whenUpdateEmployee_thenVersionIncrements() {
+
+        // given - precondition or setup
+        Employee employee = employeeRepository.findById(1L).orElseThrow();
+
+        // when - action or behaviour
+        employee.setFirstName("Olanike");
+        employeeRepository.saveAndFlush(employee);
+
+        // then - verify output
+        assertThat(employee.getVersion()).isEqualTo(1L);
+        assertThat(employee.getLastModified()).isNotNull();
+    }
+
+    @Test
+    @DisplayName("new employees get ids above every baseline row")
+    public void givenBaselineRows_whenSaveEmployee_thenIdAboveExistingIds() {
+
+        // given - precondition or setup
+        Employee employee = Employee.builder().firstName("Kemi").lastName("Bello").email("kemi@gmail.com").build();
+
+        // when - action or behaviour
+        Employee savedEmployee = employeeRepository.saveAndFlush(employee);
+
+        // then - verify output
+        assertThat(savedEmployee.getId()).isGreaterThan(HIGHEST_BASELINE_ID);
+        assertThat(savedEmployee.getVersion()).isZero();
+    }
+
+    @Test
+    @DisplayName("the upgraded schema rejects a duplicate email")
+    public void givenBaselineRow_whenSaveDuplicateEmail_thenThrowsDataIntegrityViolation() {
+
+        // given - precondition or setup
+        Employee employee = Employee.builder().firstName("Todimu").lastName("Isewon").email("todimu@gmail.com").build();
+
+        // when - action or behaviour
+        DataIntegrityViolationException exception = Assertions.assertThrows(DataIntegrityViolationException.class,
+                () -> employeeRepository.saveAndFlush(employee));
+
+        // then - verify output
+        assertThat(exception.getMessage()).containsIgnoringCase(Employee.EMAIL_CONSTRAINT);
+    }
+
+    @Test
+    @DisplayName("rows V1 stored without a version get version 0 and the column becomes not null")
+    public void givenNullVersionRow_whenMigrateToLatest_thenVersionBackfilled() {
+
+        // given - precondition or setup
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:nullable-version;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", "");
+        Flyway.configure().dataSource(dataSource).locations("classpath:db/migration/h2").target("3").load().migrate();
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.update("insert into employee (id, first_name, last_name, email, version) values (1, 'Todimu', 'Isewon', 'todimu@gmail.com', null)");
+
+        // when - action or behaviour
+        Flyway.configure().dataSource(dataSource).locations("classpath:db/migration/h2").load().migrate();
+
+        // then - verify output
+        assertThat(jdbcTemplate.queryForObject("select version from employee where id = 1", Long.class)).isZero();
+        Assertions.assertThrows(DataIntegrityViolationException.class, () -> jdbcTemplate.update(
+                "insert into employee (id, first_name, last_name, email, version) values (2, 'Lani', 'Isewon', 'lani@gmail.com', null)"));
+    }
+}
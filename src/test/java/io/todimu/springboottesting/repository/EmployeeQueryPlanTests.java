@@ -0,0 +1,188 @@
+package io.todimu.springboottesting.repository;
+
+import io.todimu.springboottesting.sql.SqlStatementCounter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCallback;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Method;
+import java.sql.ResultSet;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs every {@link EmployeeRepository} query against a seeded H2 database in MySQL mode, migrated by the same
+ * scripts as production, and asks H2 for the plan of each statement the query issued. A statement that can only be
+ * answered by reading the whole table, or that does not use the index the query was written for, fails the test, so
+ * a dropped index or a new unindexed lookup shows up here rather than as a slow endpoint.
+ */
+@DataJpaTest(properties = {
+        SqlStatementCounter.INSPECTOR_PROPERTY,
+        "spring.datasource.url=jdbc:h2:mem:query-plans;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password="
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+public class EmployeeQueryPlanTests {
+
+    private static final int SEEDED_ROWS = 1000;
+
+    private static final String PRIMARY_KEY = "primary_key";
+
+    private static final String EMAIL_INDEX = "uk_employee_email";
+
+    private static final String NAME_INDEX = "idx_employee_name";
+
+    // exports and full listings read every row by design, there is no index that would make them cheaper
+    private static final Set<String> WHOLE_TABLE_READS = Set.of("findAllViews", "streamAllByOrderByIdAsc");
+
+    private static final Map<String, IndexedQuery> QUERIES = new LinkedHashMap<>();
+
+    static {
+        QUERIES.put("findById", new IndexedQuery(PRIMARY_KEY, repository -> repository.findById(500L)));
+        QUERIES.put("findByEmail", new IndexedQuery(EMAIL_INDEX, repository -> repository.findByEmail(email(500))));
+        QUERIES.put("findExistingEmails", new IndexedQuery(EMAIL_INDEX,
+                repository -> repository.findExistingEmails(List.of(email(1), email(2), email(3)))));
+        QUERIES.put("findViewsByIdGreaterThan", new IndexedQuery(PRIMARY_KEY,
+                repository -> repository.findViewsByIdGreaterThan(500, PageRequest.of(0, 20))));
+        QUERIES.put("findViewsByIdIn", new IndexedQuery(PRIMARY_KEY,
+                repository -> repository.findViewsByIdIn(List.of(1L, 2L, 3L))));
+        QUERIES.put("patchEmployee", new IndexedQuery(PRIMARY_KEY,
+                repository -> repository.patchEmployee(500, "Patched", null, null, null, Instant.now())));
+        QUERIES.put("deleteEmployeeById", new IndexedQuery(PRIMARY_KEY, repository -> repository.deleteEmployeeById(501)));
+        QUERIES.put("deleteEmployeeByIdAndVersion", new IndexedQuery(PRIMARY_KEY,
+                repository -> repository.deleteEmployeeByIdAndVersion(502, 0)));
+        QUERIES.put("deleteEmployeesByIdIn", new IndexedQuery(PRIMARY_KEY,
+                repository -> repository.deleteEmployeesByIdIn(List.of(503L, 504L))));
+        QUERIES.put("findByJPQL", new IndexedQuery(NAME_INDEX, repository -> repository.findByJPQL("First7", "Last7")));
+        QUERIES.put("findByJPQLNamedParams", new IndexedQuery(NAME_INDEX,
+                repository -> repository.findByJPQLNamedParams("First8", "Last8")));
+        QUERIES.put("findByNativeSQL", new IndexedQuery(NAME_INDEX, repository -> repository.findByNativeSQL("First9", "Last9")));
+        QUERIES.put("findByNativeSQLNamedParams", new IndexedQuery(NAME_INDEX,
+                repository -> repository.findByNativeSQLNamedParams("First10", "Last10")));
+    }
+
+    @Autowired private EmployeeRepository employeeRepository;
+
+    @Autowired private DataSource dataSource;
+
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    public void setup() {
+        // joins the test transaction, the rows are rolled back with it
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.batchUpdate("insert into employee (id, first_name, last_name, email, version) values (?, ?, ?, ?, 0)",
+                IntStream.rangeClosed(1, SEEDED_ROWS)
+                        .mapToObj(i -> new Object[] {(long) i, "First" + i % 50, "Last" + i, email(i)})
+                        .toList());
+    }
+
+    @Test
+    @DisplayName("every query declared on the repository has a plan check")
+    public void givenEmployeeRepository_whenListQueries_thenEveryQueryIsChecked() {
+
+        // given - precondition or setup
+        List<String> declared = Arrays.stream(EmployeeRepository.class.getDeclaredMethods())
+                .map(Method::getName)
+                .toList();
+
+        // when - action or behaviour
+        List<String> unchecked = declared.stream()
+                .filter(name -> !QUERIES.containsKey(name) && !WHOLE_TABLE_READS.contains(name))
+                .toList();
+
+        // then - verify output
+        assertThat(unchecked).as("repository queries without an entry in QUERIES").isEmpty();
+    }
+
+    @Test
+    @DisplayName("every repository query is answered from its index without a full scan")
+    public void givenSeededEmployees_whenExplainRepositoryQueries_thenEveryStatementUsesItsIndex() {
+
+        // given - precondition or setup
+        List<String> failures = new ArrayList<>();
+
+        // when - action or behaviour
+        QUERIES.forEach((name, query) -> {
+            SqlStatementCounter.reset();
+            query.call().accept(employeeRepository);
+
+            List<String> statements = SqlStatementCounter.statements().stream()
+                    .filter(sql -> SqlStatementCounter.typeOf(sql) != SqlStatementCounter.Type.SEQUENCE)
+                    .toList();
+            if (statements.isEmpty()) {
+                failures.add(name + " issued no statement");
+            }
+            for (String sql : statements) {
+                String plan = explain(sql);
+                if (isFullScan(plan) || !plan.contains(query.index())) {
+                    failures.add(name + " expected " + query.index() + ":\n  " + plan);
+                }
+            }
+        });
+
+        // then - verify output
+        assertThat(failures).as("query plans").isEmpty();
+    }
+
+    @Test
+    @DisplayName("a lookup on a column without an index is reported as a full scan")
+    public void givenUnindexedColumn_whenExplain_thenFullScan() {
+
+        // given - precondition or setup
+        String sql = "select * from employee e where e.version = ?";
+
+        // when - action or behaviour
+        String plan = explain(sql);
+
+        // then - verify output
+        assertThat(isFullScan(plan)).as(plan).isTrue();
+    }
+
+    // H2 annotates each table access with the index it reads, or "tableScan" when it reads them all
+    private static boolean isFullScan(String plan) {
+        return plan.contains("tablescan");
+    }
+
+    // the plan is fixed when the statement is prepared, the parameters only need to be bound, not meaningful
+    private String explain(String sql) {
+        return jdbcTemplate.execute("explain " + sql, (PreparedStatementCallback<String>) statement -> {
+            int parameters = statement.getParameterMetaData().getParameterCount();
+            for (int i = 1; i <= parameters; i++) {
+                statement.setObject(i, null);
+            }
+            StringBuilder plan = new StringBuilder();
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    plan.append(resultSet.getString(1));
+                }
+            }
+            return plan.toString().toLowerCase(Locale.ROOT);
+        });
+    }
+
+    private static String email(int i) {
+        return "employee" + i + "@example.com";
+    }
+
+    private record IndexedQuery(String index, Consumer<EmployeeRepository> call) {
+    }
+}
@@ -1,6 +1,8 @@
 package io.todimu.springboottesting.repository;
 
 import io.todimu.springboottesting.integration.AbstractionBasedBaseTest;
+import io.todimu.springboottesting.dto.EmployeeSummary;
+import io.todimu.springboottesting.dto.EmployeeView;
 import io.todimu.springboottesting.model.Employee;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -142,7 +144,7 @@ public class EmployeeRepositoryITests extends AbstractionBasedBaseTest {
         String lastName = "Isewon";
 
         // when - action or behaviour
-        Employee savedEmployee = employeeRepository.findByJPQL(firstName, lastName);
+        EmployeeView savedEmployee = employeeRepository.findByJPQL(firstName, lastName);
 
         // then - verify output
         assertThat(savedEmployee).isNotNull();
@@ -159,7 +161,7 @@ public class EmployeeRepositoryITests extends AbstractionBasedBaseTest {
         String lastName = "Isewon";
 
         // when - action or behaviour
-        Employee savedEmployee = employeeRepository.findByJPQLNamedParams(firstName, lastName);
+        EmployeeView savedEmployee = employeeRepository.findByJPQLNamedParams(firstName, lastName);
 
         // then - verify output
         assertThat(savedEmployee).isNotNull();
@@ -173,7 +175,7 @@ public class EmployeeRepositoryITests extends AbstractionBasedBaseTest {
         employeeRepository.save(employee);
 
         // when - action or behaviour
-        Employee savedEmployee = employeeRepository.findByNativeSQL(employee.getFirstName(), employee.getLastName());
+        EmployeeSummary savedEmployee = employeeRepository.findByNativeSQL(employee.getFirstName(), employee.getLastName());
 
         // then - verify output
         assertThat(savedEmployee).isNotNull();
@@ -188,7 +190,7 @@ public class EmployeeRepositoryITests extends AbstractionBasedBaseTest {
         employeeRepository.save(employee);
 
         // when - action or behaviour
-        Employee savedEmployee = employeeRepository.findByNativeSQLNamedParams(employee.getFirstName(), employee.getLastName());
+        EmployeeSummary savedEmployee = employeeRepository.findByNativeSQLNamedParams(employee.getFirstName(), employee.getLastName());
 
         // then - verify output
         assertThat(savedEmployee).isNotNull();
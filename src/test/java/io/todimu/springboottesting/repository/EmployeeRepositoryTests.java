@@ -1,22 +1,32 @@
 package io.todimu.springboottesting.repository;
 
+import io.todimu.springboottesting.dto.EmployeeSummary;
+import io.todimu.springboottesting.dto.EmployeeView;
 import io.todimu.springboottesting.model.Employee;
+import io.todimu.springboottesting.sql.SqlStatementCounter;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
-@DataJpaTest
+@DataJpaTest(properties = SqlStatementCounter.INSPECTOR_PROPERTY)
 public class EmployeeRepositoryTests {
 
     @Autowired private EmployeeRepository employeeRepository;
 
+    @Autowired private TestEntityManager entityManager;
+
     private Employee employee;
 
     @BeforeEach
@@ -41,6 +51,24 @@ public class EmployeeRepositoryTests {
         assertThat(savedEmployee.getId()).isGreaterThan(0);
     }
 
+    @Test
+    @DisplayName("ensure a second employee with the same email is rejected")
+    public void givenExistingEmail_whenSaveAndFlush_thenThrowsDataIntegrityViolation() {
+        //given - precondition or setup
+        employeeRepository.saveAndFlush(employee);
+
+        Employee duplicate = Employee.builder()
+                .firstName("Lani")
+                .lastName("Isewon")
+                .email(employee.getEmail())
+                .build();
+
+        //when - action or behaviour
+        //then - verify output
+        assertThatThrownBy(() -> employeeRepository.saveAndFlush(duplicate))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
     @Test
     @DisplayName("get all employees")
     public void givenEmployeeList_whenFindAll_thenEmployeesList() {
@@ -68,6 +96,30 @@ public class EmployeeRepositoryTests {
         assertThat(employeeList.size()).isEqualTo(2);
     }
 
+    @Test
+    @DisplayName("get employees after a given id ordered by id")
+    public void givenEmployeeList_whenFindByIdGreaterThan_thenReturnNextKeysetPage() {
+        // given precondition or setup
+        Employee employeeOne = employeeRepository.save(employee);
+        Employee employeeTwo = employeeRepository.save(Employee.builder()
+                .firstName("Lani")
+                .lastName("Isewon")
+                .email("lani@gmail.com")
+                .build());
+        Employee employeeThree = employeeRepository.save(Employee.builder()
+                .firstName("Tobi")
+                .lastName("Isewon")
+                .email("tobi@gmail.com")
+                .build());
+
+        // when action or behaviour
+        List<EmployeeView> employeeList = employeeRepository.findViewsByIdGreaterThan(employeeOne.getId(), PageRequest.of(0, 1));
+
+        // then verify output
+        assertThat(employeeList).extracting(EmployeeView::id).containsExactly(employeeTwo.getId());
+        assertThat(employeeThree.getId()).isGreaterThan(employeeTwo.getId());
+    }
+
     @Test
     @DisplayName("get employee by Id")
     public void givenEmployeeObject_whenFindById_thenReturnEmployeeObject() {
@@ -114,6 +166,28 @@ public class EmployeeRepositoryTests {
         assertThat(updatedEmployee.getFirstName()).isEqualTo("Oluwatodimu");
     }
 
+    @Test
+    @DisplayName("patch employee fields in a single update statement")
+    public void givenEmployeeObject_whenPatchEmployee_thenOnlySuppliedFieldsChange() {
+        // given - precondition or setup
+        employeeRepository.saveAndFlush(employee);
+        Long version = employee.getVersion();
+
+        // when - action or behaviour
+        Instant patchedAt = Instant.now();
+        int updated = employeeRepository.patchEmployee(employee.getId(), "Oluwatodimu", null, null, version, patchedAt);
+        int stale = employeeRepository.patchEmployee(employee.getId(), "Lani", null, null, version, patchedAt);
+
+        // then - verify output
+        Employee patchedEmployee = employeeRepository.findById(employee.getId()).get();
+        assertThat(updated).isEqualTo(1);
+        assertThat(stale).isZero();
+        assertThat(patchedEmployee.getFirstName()).isEqualTo("Oluwatodimu");
+        assertThat(patchedEmployee.getLastName()).isEqualTo("Isewon");
+        assertThat(patchedEmployee.getVersion()).isEqualTo(version + 1);
+        assertThat(patchedEmployee.getLastModified()).isNotNull();
+    }
+
     @Test
     @DisplayName("delete employee")
     public void givenEmployeeObject_whenDelete_thenRemoveEmployee() {
@@ -139,7 +213,7 @@ public class EmployeeRepositoryTests {
         String lastName = "Isewon";
 
         // when - action or behaviour
-        Employee savedEmployee = employeeRepository.findByJPQL(firstName, lastName);
+        EmployeeView savedEmployee = employeeRepository.findByJPQL(firstName, lastName);
 
         // then - verify output
         assertThat(savedEmployee).isNotNull();
@@ -156,7 +230,7 @@ public class EmployeeRepositoryTests {
         String lastName = "Isewon";
 
         // when - action or behaviour
-        Employee savedEmployee = employeeRepository.findByJPQLNamedParams(firstName, lastName);
+        EmployeeView savedEmployee = employeeRepository.findByJPQLNamedParams(firstName, lastName);
 
         // then - verify output
         assertThat(savedEmployee).isNotNull();
@@ -170,7 +244,7 @@ public class EmployeeRepositoryTests {
         employeeRepository.save(employee);
 
         // when - action or behaviour
-        Employee savedEmployee = employeeRepository.findByNativeSQL(employee.getFirstName(), employee.getLastName());
+        EmployeeSummary savedEmployee = employeeRepository.findByNativeSQL(employee.getFirstName(), employee.getLastName());
 
         // then - verify output
         assertThat(savedEmployee).isNotNull();
@@ -185,9 +259,72 @@ public class EmployeeRepositoryTests {
         employeeRepository.save(employee);
 
         // when - action or behaviour
-        Employee savedEmployee = employeeRepository.findByNativeSQLNamedParams(employee.getFirstName(), employee.getLastName());
+        EmployeeSummary savedEmployee = employeeRepository.findByNativeSQLNamedParams(employee.getFirstName(), employee.getLastName());
 
         // then - verify output
         assertThat(savedEmployee).isNotNull();
     }
+
+    @Test
+    @DisplayName("save employee in a single insert statement")
+    public void givenEmployeeObject_whenSaveAndFlush_thenIssuesOneInsert() {
+        // given - precondition or setup
+        SqlStatementCounter.reset();
+
+        // when - action or behaviour
+        employeeRepository.saveAndFlush(employee);
+
+        // then - verify output
+        SqlStatementCounter.assertStatements(0, 1, 0, 0);
+    }
+
+    @Test
+    @DisplayName("get employee by id in a single select statement")
+    public void givenEmployeeObject_whenFindById_thenIssuesOneSelect() {
+        // given - precondition or setup
+        employeeRepository.saveAndFlush(employee);
+        entityManager.clear();
+        SqlStatementCounter.reset();
+
+        // when - action or behaviour
+        Optional<Employee> foundEmployee = employeeRepository.findById(employee.getId());
+
+        // then - verify output
+        assertThat(foundEmployee).isPresent();
+        SqlStatementCounter.assertStatements(1, 0, 0, 0);
+    }
+
+    @Test
+    @DisplayName("get all employee views in a single select statement")
+    public void givenEmployeeList_whenFindAllViews_thenIssuesOneSelect() {
+        // given - precondition or setup
+        employeeRepository.saveAllAndFlush(List.of(employee,
+                Employee.builder().firstName("Lani").lastName("Isewon").email("lani@gmail.com").build(),
+                Employee.builder().firstName("Tobi").lastName("Isewon").email("tobi@gmail.com").build()));
+        entityManager.clear();
+        SqlStatementCounter.reset();
+
+        // when - action or behaviour
+        List<EmployeeView> employeeList = employeeRepository.findAllViews();
+
+        // then - verify output
+        assertThat(employeeList).hasSize(3);
+        SqlStatementCounter.assertStatements(1, 0, 0, 0);
+        SqlStatementCounter.assertNoRepeatedSelects();
+    }
+
+    @Test
+    @DisplayName("patch and delete employee in one statement each")
+    public void givenEmployeeObject_whenPatchAndDelete_thenIssuesOneStatementEach() {
+        // given - precondition or setup
+        employeeRepository.saveAndFlush(employee);
+        SqlStatementCounter.reset();
+
+        // when - action or behaviour
+        employeeRepository.patchEmployee(employee.getId(), "Oluwatodimu", null, null, employee.getVersion(), Instant.now());
+        employeeRepository.deleteEmployeeById(employee.getId());
+
+        // then - verify output
+        SqlStatementCounter.assertStatements(0, 0, 1, 1);
+    }
 }
@@ -0,0 +1,139 @@
+package io.todimu.springboottesting.search;
+
+import io.todimu.springboottesting.dto.EmployeeSearchPage;
+import io.todimu.springboottesting.dto.EmployeeView;
+import io.todimu.springboottesting.repository.EmployeeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.domain.Pageable;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+
+@ExtendWith(MockitoExtension.class)
+public class EmployeeSearchIndexTests {
+
+    @Mock private EmployeeRepository employeeRepository;
+
+    private EmployeeSearchIndex searchIndex;
+
+    @BeforeEach
+    public void setup() {
+        searchIndex = new EmployeeSearchIndex(employeeRepository);
+        searchIndex.index(new EmployeeView(1L, "Todimu", "Isewon", "todimu@gmail.com", 0L, null));
+        searchIndex.index(new EmployeeView(2L, "Lani", "Isewon", "lani@gmail.com", 0L, null));
+        searchIndex.index(new EmployeeView(3L, "Tod", "Adeyemi", "tod.adeyemi@yahoo.com", 0L, null));
+    }
+
+    @Test
+    @DisplayName("search by a name prefix ranks the exact term first")
+    public void givenPrefix_whenSearch_thenExactMatchRanksFirst() {
+
+        // when - action or behaviour
+        EmployeeSearchPage result = searchIndex.search("tod", 0, 20);
+
+        // then - verify output
+        assertThat(result.total()).isEqualTo(2);
+        assertThat(result.employees()).extracting(EmployeeView::id).containsExactly(3L, 1L);
+    }
+
+    @Test
+    @DisplayName("search with a typo still finds the employee")
+    public void givenMisspelledName_whenSearch_thenReturnsFuzzyMatch() {
+
+        // when - action or behaviour
+        EmployeeSearchPage result = searchIndex.search("isewin", 0, 20);
+
+        // then - verify output
+        assertThat(result.employees()).extracting(EmployeeView::id).containsExactlyInAnyOrder(1L, 2L);
+    }
+
+    @Test
+    @DisplayName("search with several tokens requires every token to match")
+    public void givenTwoTokens_whenSearch_thenReturnsIntersection() {
+
+        // when - action or behaviour
+        EmployeeSearchPage result = searchIndex.search("lani isewon", 0, 20);
+
+        // then - verify output
+        assertThat(result.employees()).extracting(EmployeeView::id).containsExactly(2L);
+    }
+
+    @Test
+    @DisplayName("search by email prefix and paginate the hits")
+    public void givenEmailPrefix_whenSearchSecondPage_thenReturnsRemainingHits() {
+
+        // when - action or behaviour
+        EmployeeSearchPage first = searchIndex.search("todimu@gm", 0, 1);
+        EmployeeSearchPage isewons = searchIndex.search("isewon", 1, 1);
+
+        // then - verify output
+        assertThat(first.employees()).extracting(EmployeeView::id).containsExactly(1L);
+        assertThat(isewons.total()).isEqualTo(2);
+        assertThat(isewons.employees()).extracting(EmployeeView::id).containsExactly(1L);
+    }
+
+    @Test
+    @DisplayName("patched and removed employees are reflected in the results")
+    public void givenPatchAndRemove_whenSearch_thenReturnsCurrentState() {
+
+        // when - action or behaviour
+        searchIndex.patch(2L, "Olanike", null, "olanike@gmail.com", Instant.now());
+        searchIndex.remove(3L);
+
+        // then - verify output
+        assertThat(searchIndex.search("lani", 0, 20).total()).isZero();
+        assertThat(searchIndex.search("olanike", 0, 20).employees())
+                .singleElement()
+                .satisfies(employee -> {
+                    assertThat(employee.lastName()).isEqualTo("Isewon");
+                    assertThat(employee.version()).isEqualTo(1L);
+                });
+        assertThat(searchIndex.search("adeyemi", 0, 20).total()).isZero();
+        assertThat(searchIndex.size()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("rebuild replaces the index with the table contents")
+    public void givenTableRows_whenRebuild_thenIndexesEveryRow() {
+
+        // given - precondition or setup
+        given(employeeRepository.findViewsByIdGreaterThan(eq(0L), any(Pageable.class)))
+                .willReturn(List.of(new EmployeeView(7L, "Kemi", "Bello", "kemi@gmail.com", 0L, null)));
+
+        // when - action or behaviour
+        searchIndex.rebuild();
+
+        // then - verify output
+        assertThat(searchIndex.size()).isEqualTo(1);
+        assertThat(searchIndex.search("bel", 0, 20).employees()).extracting(EmployeeView::id).containsExactly(7L);
+        assertThat(searchIndex.search("todimu", 0, 20).total()).isZero();
+    }
+
+    @Test
+    @DisplayName("a failing rebuild keeps what it indexed instead of throwing")
+    public void givenTableUnreachable_whenRebuild_thenIndexStaysUsable() {
+
+        // given - precondition or setup
+        given(employeeRepository.findViewsByIdGreaterThan(anyLong(), any(Pageable.class)))
+                .willThrow(new DataAccessResourceFailureException("Table employee not found"));
+
+        // when - action or behaviour
+        searchIndex.rebuild();
+        searchIndex.index(new EmployeeView(8L, "Kemi", "Bello", "kemi@gmail.com", 0L, null));
+
+        // then - verify output
+        assertThat(searchIndex.search("kemi", 0, 20).employees()).extracting(EmployeeView::id).containsExactly(8L);
+    }
+}
@@ -0,0 +1,142 @@
+package io.todimu.springboottesting.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.todimu.springboottesting.dto.IngestionStatus;
+import io.todimu.springboottesting.exception.ResourceConflictException;
+import io.todimu.springboottesting.exception.TooManyRequestsException;
+import io.todimu.springboottesting.model.Employee;
+import io.todimu.springboottesting.service.impl.EmployeeIngestionServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+public class EmployeeIngestionServiceTests {
+
+    @Mock private EmployeeService employeeService;
+
+    private EmployeeIngestionServiceImpl ingestionService;
+
+    @AfterEach
+    public void tearDown() {
+        if (ingestionService != null && ingestionService.isRunning()) {
+            ingestionService.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("submitted employees are written in one batch")
+    public void givenSubmissions_whenWriterDrains_thenEmployeesCreatedInBatch() throws Exception {
+
+        // given - precondition or setup
+        ingestionService = newIngestionService(10);
+        given(employeeService.saveEmployees(anyList())).willAnswer(invocation -> {
+            List<Employee> employees = invocation.getArgument(0);
+            long id = 1;
+            for (Employee employee : employees) {
+                employee.setId(id++);
+            }
+            return employees;
+        });
+
+        // when - action or behaviour
+        ingestionService.start();
+        IngestionStatus first = ingestionService.submit(employee("todimu@gmail.com"));
+        IngestionStatus second = ingestionService.submit(employee("lani@gmail.com"));
+
+        // then - verify output
+        assertThat(first.state()).isEqualTo(IngestionStatus.State.QUEUED);
+        assertThat(awaitCompletion(first).state()).isEqualTo(IngestionStatus.State.CREATED);
+        assertThat(awaitCompletion(second).state()).isEqualTo(IngestionStatus.State.CREATED);
+        verify(employeeService, never()).saveEmployee(any(Employee.class));
+    }
+
+    @Test
+    @DisplayName("a failing batch is retried row by row so only the bad row fails")
+    public void givenDuplicateInBatch_whenWriterDrains_thenOnlyDuplicateFails() throws Exception {
+
+        // given - precondition or setup
+        ingestionService = newIngestionService(10);
+        given(employeeService.saveEmployees(anyList()))
+                .willThrow(new ResourceConflictException("Employee already exists with given email:lani@gmail.com"));
+        given(employeeService.saveEmployee(any(Employee.class))).willAnswer(invocation -> {
+            Employee employee = invocation.getArgument(0);
+            if (employee.getEmail().equals("lani@gmail.com")) {
+                throw new ResourceConflictException("Employee already exists with given email:" + employee.getEmail());
+            }
+            employee.setId(1L);
+            return employee;
+        });
+
+        // when - action or behaviour, both queued before the writer starts so they share a batch
+        IngestionStatus first = ingestionService.submit(employee("todimu@gmail.com"));
+        IngestionStatus second = ingestionService.submit(employee("lani@gmail.com"));
+        ingestionService.start();
+
+        // then - verify output
+        IngestionStatus created = awaitCompletion(first);
+        IngestionStatus failed = awaitCompletion(second);
+        assertThat(created.state()).isEqualTo(IngestionStatus.State.CREATED);
+        assertThat(created.employeeId()).isEqualTo(1L);
+        assertThat(failed.state()).isEqualTo(IngestionStatus.State.FAILED);
+        assertThat(failed.error()).isEqualTo(IngestionStatus.DUPLICATE_EMAIL);
+    }
+
+    @Test
+    @DisplayName("submit employee while the queue is full")
+    public void givenFullQueue_whenSubmit_thenThrowsTooManyRequests() {
+
+        // given - precondition or setup
+        ingestionService = newIngestionService(1);
+        IngestionStatus queued = ingestionService.submit(employee("todimu@gmail.com"));
+
+        // when - action or behaviour
+        Assertions.assertThrows(TooManyRequestsException.class, () -> ingestionService.submit(employee("lani@gmail.com")));
+
+        // then - verify output
+        assertThat(ingestionService.getStatus(queued.trackingId())).isPresent();
+        verifyNoInteractions(employeeService);
+    }
+
+    private EmployeeIngestionServiceImpl newIngestionService(int capacity) {
+        // Boot's converters, as in the application environment, read the "5s" style durations
+        MockEnvironment environment = new MockEnvironment();
+        environment.setConversionService(new ApplicationConversionService());
+        environment.setProperty("app.ingestion.queue-capacity", String.valueOf(capacity));
+        environment.setProperty("app.ingestion.shutdown-timeout", "5s");
+        return new EmployeeIngestionServiceImpl(employeeService, environment, new SimpleMeterRegistry());
+    }
+
+    private IngestionStatus awaitCompletion(IngestionStatus status) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() < deadline) {
+            IngestionStatus current = ingestionService.getStatus(status.trackingId()).orElseThrow();
+            if (current.state() != IngestionStatus.State.QUEUED) {
+                return current;
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("Submission " + status.trackingId() + " was not written in time");
+    }
+
+    private static Employee employee(String email) {
+        return Employee.builder().firstName("Todimu").lastName("Isewon").email(email).build();
+    }
+}
@@ -0,0 +1,196 @@
+package io.todimu.springboottesting.service;
+
+import io.todimu.springboottesting.config.CacheConfig;
+import io.todimu.springboottesting.model.Employee;
+import io.todimu.springboottesting.repository.EmployeeRepository;
+import io.todimu.springboottesting.search.EmployeeSearchIndex;
+import io.todimu.springboottesting.service.impl.EmployeeServiceImpl;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * The employee cache annotations on {@link EmployeeServiceImpl}, run through the real caching proxy and a Caffeine
+ * cache manager with the repository mocked, so every read that reaches the database shows up as a repository call.
+ */
+@SpringJUnitConfig({CacheConfig.class, EmployeeServiceImpl.class, EmployeeServiceCachingTests.CacheManagerConfig.class})
+public class EmployeeServiceCachingTests {
+
+    @Autowired private EmployeeService employeeService;
+
+    @Autowired private CacheManager cacheManager;
+
+    @MockBean private EmployeeRepository employeeRepository;
+
+    @MockBean private EntityManager entityManager;
+
+    @MockBean(name = TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME) private Executor lookupExecutor;
+
+    @MockBean private EmployeeSearchIndex searchIndex;
+
+    private Employee employee;
+
+    @BeforeEach
+    public void setup() {
+        cacheManager.getCache(CacheConfig.EMPLOYEE_CACHE).clear();
+
+        employee = Employee.builder()
+                .id(1L)
+                .firstName("Todimu")
+                .lastName("Isewon")
+                .email("todimu@gmail.com")
+                .version(0L)
+                .build();
+    }
+
+    @Test
+    @DisplayName("a second read of the same employee is served from the cache")
+    public void givenCachedEmployee_whenGetEmployeeByIdAgain_thenRepositorySkipped() {
+
+        // given - precondition or setup
+        given(employeeRepository.findById(1L)).willReturn(Optional.of(employee));
+
+        // when - action or behaviour
+        Optional<Employee> first = employeeService.getEmployeeById(1L);
+        Optional<Employee> second = employeeService.getEmployeeById(1L);
+
+        // then - verify output
+        assertThat(first).contains(employee);
+        assertThat(second).contains(employee);
+        verify(employeeRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    @DisplayName("an unknown id is not cached")
+    public void givenUnknownId_whenGetEmployeeByIdTwice_thenRepositoryCalledTwice() {
+
+        // given - precondition or setup
+        given(employeeRepository.findById(2L)).willReturn(Optional.empty());
+
+        // when - action or behaviour
+        Optional<Employee> first = employeeService.getEmployeeById(2L);
+        Optional<Employee> second = employeeService.getEmployeeById(2L);
+
+        // then - verify output
+        assertThat(first).isEmpty();
+        assertThat(second).isEmpty();
+        verify(employeeRepository, times(2)).findById(2L);
+    }
+
+    @Test
+    @DisplayName("update replaces the cached employee")
+    public void givenCachedEmployee_whenUpdateEmployee_thenCacheHoldsUpdatedEmployee() {
+
+        // given - precondition or setup
+        given(employeeRepository.findById(1L)).willReturn(Optional.of(employee));
+        given(employeeRepository.save(any(Employee.class))).willAnswer(invocation -> invocation.getArgument(0));
+        employeeService.getEmployeeById(1L);
+
+        Employee updatedEmployee = Employee.builder()
+                .id(1L)
+                .firstName("Lani")
+                .lastName("Isewon")
+                .email("lani@gmail.com")
+                .version(0L)
+                .build();
+
+        // when - action or behaviour
+        employeeService.updateEmployee(updatedEmployee);
+        Optional<Employee> cached = employeeService.getEmployeeById(1L);
+
+        // then - verify output
+        assertThat(cached).hasValueSatisfying(found -> assertThat(found.getFirstName()).isEqualTo("Lani"));
+        verify(employeeRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    @DisplayName("delete evicts the cached employee")
+    public void givenCachedEmployee_whenDeleteEmployee_thenNextReadHitsRepository() {
+
+        // given - precondition or setup
+        given(employeeRepository.findById(1L)).willReturn(Optional.of(employee), Optional.empty());
+        given(employeeRepository.deleteEmployeeById(1L)).willReturn(1);
+        employeeService.getEmployeeById(1L);
+
+        // when - action or behaviour
+        employeeService.deleteEmployee(1L);
+        Optional<Employee> afterDelete = employeeService.getEmployeeById(1L);
+
+        // then - verify output
+        assertThat(afterDelete).isEmpty();
+        verify(employeeRepository, times(2)).findById(1L);
+    }
+
+    @Test
+    @DisplayName("a read that started before an update does not put the old employee back after it")
+    public void givenReadInFlight_whenUpdateEmployee_thenCacheKeepsUpdatedEmployee() throws Exception {
+
+        // given - precondition or setup
+        CountDownLatch readStarted = new CountDownLatch(1);
+        CountDownLatch releaseRead = new CountDownLatch(1);
+        given(employeeRepository.findById(1L)).willAnswer(invocation -> {
+            readStarted.countDown();
+            releaseRead.await(5, TimeUnit.SECONDS);
+            return Optional.of(employee);
+        });
+        given(employeeRepository.save(any(Employee.class))).willAnswer(invocation -> invocation.getArgument(0));
+
+        Employee updatedEmployee = Employee.builder()
+                .id(1L)
+                .firstName("Lani")
+                .lastName("Isewon")
+                .email("lani@gmail.com")
+                .version(1L)
+                .build();
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Optional<Employee>> staleRead = executor.submit(() -> employeeService.getEmployeeById(1L));
+            assertThat(readStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+            // when - action or behaviour
+            employeeService.updateEmployee(updatedEmployee);
+            releaseRead.countDown();
+            staleRead.get(5, TimeUnit.SECONDS);
+            Optional<Employee> cached = employeeService.getEmployeeById(1L);
+
+            // then - verify output
+            assertThat(cached).hasValueSatisfying(found -> assertThat(found.getFirstName()).isEqualTo("Lani"));
+            verify(employeeRepository, times(1)).findById(1L);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Configuration
+    static class CacheManagerConfig {
+
+        @Bean
+        public CacheManager cacheManager() {
+            return new CaffeineCacheManager(CacheConfig.EMPLOYEE_CACHE);
+        }
+    }
+}
@@ -1,9 +1,16 @@
 package io.todimu.springboottesting.service;
 
-import io.todimu.springboottesting.exception.ResourceNotFoundException;
+import io.todimu.springboottesting.config.CacheConfig;
+import io.todimu.springboottesting.dto.EmployeePage;
+import io.todimu.springboottesting.dto.EmployeeView;
+import io.todimu.springboottesting.exception.BadRequestException;
+import io.todimu.springboottesting.exception.ResourceConflictException;
 import io.todimu.springboottesting.model.Employee;
 import io.todimu.springboottesting.repository.EmployeeRepository;
+import io.todimu.springboottesting.search.EmployeeSearchIndex;
 import io.todimu.springboottesting.service.impl.EmployeeServiceImpl;
+import jakarta.persistence.EntityManager;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -11,16 +18,26 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.BDDMockito.given;
-import static org.mockito.BDDMockito.willDoNothing;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -28,6 +45,14 @@ public class EmployeeServiceTests {
 
     @Mock private EmployeeRepository employeeRepository;
 
+    @Mock private EntityManager entityManager;
+
+    @Mock private Executor lookupExecutor;
+
+    @Mock private EmployeeSearchIndex searchIndex;
+
+    @Spy private CacheManager cacheManager = new ConcurrentMapCacheManager(CacheConfig.EMPLOYEE_CACHE);
+
     @InjectMocks private EmployeeServiceImpl employeeService;
 
     private Employee employee;
@@ -47,14 +72,15 @@ public class EmployeeServiceTests {
     public void givenEmployeeObject_whenSaveEmployee_thenReturnEmployeeObject() {
 
         // given - precondition or setup
-        given(employeeRepository.findByEmail(employee.getEmail())).willReturn(Optional.empty());
-        given(employeeRepository.save(employee)).willReturn(employee);
+        given(employeeRepository.saveAndFlush(employee)).willReturn(employee);
 
         // when - action or behaviour
          Employee savedEmployee = employeeService. saveEmployee(employee);
 
         // then - verify output
         assertThat(savedEmployee).isNotNull();
+        verify(employeeRepository, never()).findByEmail(anyString());
+        verify(searchIndex).index(EmployeeView.from(employee));
     }
 
     @Test
@@ -62,15 +88,68 @@ public class EmployeeServiceTests {
     public void givenExistingEmail_whenSaveEmployee_thenThrowsException() {
 
         // given - precondition or setup
-        given(employeeRepository.findByEmail(employee.getEmail())).willReturn(Optional.of(employee));
+        given(employeeRepository.saveAndFlush(employee)).willThrow(new DataIntegrityViolationException("duplicate",
+                new ConstraintViolationException("duplicate", new SQLException(), "PUBLIC.UK_EMPLOYEE_EMAIL_INDEX_1")));
+
+        // when - action or behaviour
+        Assertions.assertThrows(ResourceConflictException.class, () -> {
+            employeeService. saveEmployee(employee);
+        });
+
+        // then - verify output
+        verify(employeeRepository, never()).findByEmail(anyString());
+    }
+
+    @Test
+    @DisplayName("save employee failing on another constraint is not reported as a duplicate")
+    public void givenOtherConstraintViolation_whenSaveEmployee_thenRethrowsException() {
+
+        // given - precondition or setup
+        given(employeeRepository.saveAndFlush(employee)).willThrow(new DataIntegrityViolationException("not null",
+                new ConstraintViolationException("not null", new SQLException(), null)));
 
         // when - action or behaviour
-        Assertions.assertThrows(ResourceNotFoundException.class, () -> {
+        Assertions.assertThrows(DataIntegrityViolationException.class, () -> {
             employeeService. saveEmployee(employee);
         });
+    }
+
+    @Test
+    @DisplayName("save a batch of employees with one duplicate check query")
+    public void givenEmployeeList_whenSaveEmployees_thenReturnSavedEmployees() {
+
+        // given - precondition or setup
+        Employee employeeTwo = Employee.builder().firstName("Lani").lastName("Isewon").email("lani@gmail").build();
+        List<Employee> employees = List.of(employee, employeeTwo);
+
+        given(employeeRepository.findExistingEmails(anyCollection())).willReturn(Collections.emptyList());
+        given(employeeRepository.saveAllAndFlush(employees)).willReturn(employees);
+
+        // when - action or behaviour
+        List<Employee> savedEmployees = employeeService.saveEmployees(employees);
+
+        // then - verify output
+        assertThat(savedEmployees).hasSize(2);
+        verify(employeeRepository, times(1)).findExistingEmails(anyCollection());
+        verify(employeeRepository, never()).findByEmail(anyString());
+    }
+
+    @Test
+    @DisplayName("save a batch of employees where one email already exists")
+    public void givenExistingEmailInBatch_whenSaveEmployees_thenThrowsException() {
+
+        // given - precondition or setup
+        Employee employeeTwo = Employee.builder().firstName("Lani").lastName("Isewon").email("lani@gmail").build();
+
+        given(employeeRepository.findExistingEmails(anyCollection())).willReturn(List.of(employeeTwo.getEmail()));
+
+        // when - action or behaviour
+        Assertions.assertThrows(ResourceConflictException.class, () -> {
+            employeeService.saveEmployees(List.of(employee, employeeTwo));
+        });
 
         // then - verify output
-        verify(employeeRepository, never()).save(any(Employee.class));
+        verify(employeeRepository, never()).saveAllAndFlush(anyList());
     }
 
     @Test
@@ -85,10 +164,10 @@ public class EmployeeServiceTests {
                 .email("lani@gmail")
                 .build();
 
-        given(employeeRepository.findAll()).willReturn(List.of(employee, employeeOne));
+        given(employeeRepository.findAllViews()).willReturn(List.of(EmployeeView.from(employee), EmployeeView.from(employeeOne)));
 
         // when - action or behaviour
-        List<Employee> employeeList = employeeService.getAllEmployees();
+        List<EmployeeView> employeeList = employeeService.getAllEmployees();
 
         // then - verify output
         assertThat(employeeList).isNotNull();
@@ -101,15 +180,71 @@ public class EmployeeServiceTests {
     public void givenEmptyListOfEmployees_whenGetAllEmployees_thenReturnsEmptyEmployeesList() {
 
         // given - precondition or setup
-        given(employeeRepository.findAll()).willReturn(Collections.emptyList());
+        given(employeeRepository.findAllViews()).willReturn(Collections.emptyList());
 
         // when - action or behaviour
-        List<Employee> employeeList = employeeService.getAllEmployees();
+        List<EmployeeView> employeeList = employeeService.getAllEmployees();
 
         // then - verify output
         assertThat(employeeList).isEmpty();
     }
 
+    @Test
+    @DisplayName("get first keyset page with a cursor for the next one")
+    public void givenMoreEmployeesThanLimit_whenGetEmployees_thenReturnsPageWithNextCursor() {
+
+        // given - precondition or setup
+        EmployeeView employeeOne = EmployeeView.from(employee);
+        EmployeeView employeeTwo = new EmployeeView(2L, "Lani", "Isewon", "lani@gmail", 0L, null);
+        EmployeeView employeeThree = new EmployeeView(3L, "Tobi", "Isewon", "tobi@gmail", 0L, null);
+
+        given(employeeRepository.findViewsByIdGreaterThan(0L, PageRequest.of(0, 3)))
+                .willReturn(List.of(employeeOne, employeeTwo, employeeThree));
+        given(employeeRepository.findViewsByIdGreaterThan(2L, PageRequest.of(0, 3)))
+                .willReturn(List.of(employeeThree));
+
+        // when - action or behaviour
+        EmployeePage firstPage = employeeService.getEmployees(null, 2);
+        EmployeePage lastPage = employeeService.getEmployees(firstPage.nextCursor(), 2);
+
+        // then - verify output
+        assertThat(firstPage.employees()).containsExactly(employeeOne, employeeTwo);
+        assertThat(firstPage.nextCursor()).isNotNull();
+        assertThat(lastPage.employees()).containsExactly(employeeThree);
+        assertThat(lastPage.nextCursor()).isNull();
+    }
+
+    @Test
+    @DisplayName("get employees with a malformed cursor")
+    public void givenInvalidCursor_whenGetEmployees_thenThrowsException() {
+
+        // when - action or behaviour
+        Assertions.assertThrows(BadRequestException.class, () -> employeeService.getEmployees("not-a-cursor", 10));
+
+        // then - verify output
+        verify(employeeRepository, never()).findViewsByIdGreaterThan(anyLong(), any());
+    }
+
+    @Test
+    @DisplayName("export streams every employee to the sink and detaches it")
+    public void givenStreamOfEmployees_whenExportEmployees_thenEachEmployeeIsWrittenAndDetached() {
+
+        // given - precondition or setup
+        Employee employeeTwo = Employee.builder().id(2L).firstName("Lani").lastName("Isewon").email("lani@gmail").build();
+        given(employeeRepository.streamAllByOrderByIdAsc()).willReturn(Stream.of(employee, employeeTwo));
+
+        List<Employee> exported = new ArrayList<>();
+
+        // when - action or behaviour
+        long count = employeeService.exportEmployees(exported::add);
+
+        // then - verify output
+        assertThat(count).isEqualTo(2);
+        assertThat(exported).containsExactly(employee, employeeTwo);
+        verify(entityManager).detach(employee);
+        verify(entityManager).detach(employeeTwo);
+    }
+
     @Test
     @DisplayName("get employee optional by Id")
     public void givenEmployeeId_whenFindById_thenReturnEmployeeOptional() {
@@ -124,6 +259,60 @@ public class EmployeeServiceTests {
         assertThat(savedEmployee).isNotNull();
     }
 
+    @Test
+    @DisplayName("get employee optional by email")
+    public void givenEmployeeEmail_whenGetEmployeeByEmail_thenReturnEmployeeOptional() {
+
+        // given - precondition or setup
+        given(employeeRepository.findByEmail(employee.getEmail())).willReturn(Optional.of(employee));
+
+        // when - action or behaviour
+        Optional<Employee> savedEmployee = employeeService.getEmployeeByEmail(employee.getEmail());
+
+        // then - verify output
+        assertThat(savedEmployee).contains(employee);
+    }
+
+    @Test
+    @DisplayName("get employees by ids in the requested order")
+    public void givenEmployeeIds_whenGetEmployeesByIds_thenReturnEmployeesInRequestedOrder() {
+
+        // given - precondition or setup
+        EmployeeView employeeOne = EmployeeView.from(employee);
+        EmployeeView employeeTwo = new EmployeeView(2L, "Lani", "Isewon", "lani@gmail", 0L, null);
+        given(employeeRepository.findViewsByIdIn(List.of(2L, 3L, 1L))).willReturn(List.of(employeeOne, employeeTwo));
+
+        // when - action or behaviour
+        List<EmployeeView> employees = employeeService.getEmployeesByIds(List.of(2L, 3L, 1L, 2L));
+
+        // then - verify output
+        assertThat(employees).containsExactly(employeeTwo, employeeOne);
+        verifyNoInteractions(lookupExecutor);
+    }
+
+    @Test
+    @DisplayName("get employees by a large id set in bounded chunks")
+    public void givenLargeIdSet_whenGetEmployeesByIds_thenQueriesInChunks() {
+
+        // given - precondition or setup
+        EmployeeServiceImpl chunkingService = new EmployeeServiceImpl(employeeRepository, entityManager, Runnable::run, searchIndex, cacheManager);
+        List<Long> ids = LongStream.rangeClosed(1, 1200).boxed().toList();
+
+        given(employeeRepository.findViewsByIdIn(anyList())).willAnswer(invocation -> {
+            List<Long> chunk = invocation.getArgument(0);
+            return chunk.stream()
+                    .map(id -> new EmployeeView(id, null, null, id + "@gmail", 0L, null))
+                    .toList();
+        });
+
+        // when - action or behaviour
+        List<EmployeeView> employees = chunkingService.getEmployeesByIds(ids);
+
+        // then - verify output
+        assertThat(employees).extracting(EmployeeView::id).containsExactlyElementsOf(ids);
+        verify(employeeRepository, times(3)).findViewsByIdIn(anyList());
+    }
+
     @Test
     @DisplayName("update employee data")
     public void givenEmployeeObject_whenUpdateEmployee_thenReturnUpdatedEmployee() {
@@ -144,19 +333,138 @@ public class EmployeeServiceTests {
         assertThat(updatedEmployee.getEmail()).isEqualTo("kaido@yahoo.com");
     }
 
+    @Test
+    @DisplayName("save and update employee go to the repository once each")
+    public void givenEmployeeObject_whenSaveAndUpdate_thenOneRepositoryCallEach() {
+
+        // given - precondition or setup
+        given(employeeRepository.saveAndFlush(employee)).willReturn(employee);
+        given(employeeRepository.save(employee)).willReturn(employee);
+
+        // when - action or behaviour
+        employeeService.saveEmployee(employee);
+        employeeService.updateEmployee(employee);
+
+        // then - verify output, any extra lookup on these paths is an extra statement per request
+        verify(employeeRepository).saveAndFlush(employee);
+        verify(employeeRepository).save(employee);
+        verifyNoMoreInteractions(employeeRepository);
+    }
+
+    @Test
+    @DisplayName("patch employee with the current version")
+    public void givenCurrentVersion_whenPatchEmployee_thenReturnTrue() {
+
+        // given - precondition or setup
+        Employee patch = Employee.builder().firstName("Victor").version(3L).build();
+        given(employeeRepository.patchEmployee(eq(1L), eq("Victor"), isNull(), isNull(), eq(3L), any(Instant.class))).willReturn(1);
+
+        // when - action or behaviour
+        boolean patched = employeeService.patchEmployee(1L, patch);
+
+        // then - verify output
+        assertThat(patched).isTrue();
+        verify(employeeRepository, never()).existsById(anyLong());
+    }
+
+    @Test
+    @DisplayName("patch employee with a stale version")
+    public void givenStaleVersion_whenPatchEmployee_thenThrowsConflict() {
+
+        // given - precondition or setup
+        Employee patch = Employee.builder().firstName("Victor").version(3L).build();
+        given(employeeRepository.patchEmployee(eq(1L), eq("Victor"), isNull(), isNull(), eq(3L), any(Instant.class))).willReturn(0);
+        given(employeeRepository.existsById(1L)).willReturn(true);
+
+        // when - action or behaviour
+        Assertions.assertThrows(ResourceConflictException.class, () -> employeeService.patchEmployee(1L, patch));
+    }
+
+    @Test
+    @DisplayName("patch employee that does not exist")
+    public void givenUnknownId_whenPatchEmployee_thenReturnFalse() {
+
+        // given - precondition or setup
+        Employee patch = Employee.builder().firstName("Victor").version(3L).build();
+        given(employeeRepository.patchEmployee(eq(1L), eq("Victor"), isNull(), isNull(), eq(3L), any(Instant.class))).willReturn(0);
+        given(employeeRepository.existsById(1L)).willReturn(false);
+
+        // when - action or behaviour
+        boolean patched = employeeService.patchEmployee(1L, patch);
+
+        // then - verify output
+        assertThat(patched).isFalse();
+    }
+
     @Test
     @DisplayName("delete employee by id")
-    public void givenEmployeeId_whenDeleteEmployee_thenNothing() {
+    public void givenEmployeeId_whenDeleteEmployee_thenReturnTrue() {
 
         long employeeId = 1L;
 
         // given - precondition or setup
-        willDoNothing().given(employeeRepository).deleteById(employeeId);
+        given(employeeRepository.deleteEmployeeById(employeeId)).willReturn(1);
+
+        // when - action or behaviour
+        boolean deleted = employeeService.deleteEmployee(employeeId);
+
+        // then - verify output
+        assertThat(deleted).isTrue();
+        verify(employeeRepository, times(1)).deleteEmployeeById(employeeId);
+        verify(employeeRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    @DisplayName("delete employee that does not exist")
+    public void givenUnknownEmployeeId_whenDeleteEmployee_thenReturnFalse() {
+
+        // given - precondition or setup
+        given(employeeRepository.deleteEmployeeById(1L)).willReturn(0);
+
+        // when - action or behaviour
+        boolean deleted = employeeService.deleteEmployee(1L);
+
+        // then - verify output
+        assertThat(deleted).isFalse();
+    }
+
+    @Test
+    @DisplayName("delete employee at a version that is no longer current")
+    public void givenStaleVersion_whenDeleteEmployee_thenThrowsConflict() {
+
+        // given - precondition or setup
+        given(employeeRepository.deleteEmployeeByIdAndVersion(1L, 3L)).willReturn(0);
+        given(employeeRepository.existsById(1L)).willReturn(true);
+
+        // when - action or behaviour
+        Assertions.assertThrows(ResourceConflictException.class, () -> employeeService.deleteEmployee(1L, 3L));
+    }
+
+    @Test
+    @DisplayName("bulk delete employees in chunks")
+    public void givenLargeIdSet_whenDeleteEmployees_thenDeletesInChunks() {
+
+        // given - precondition or setup
+        List<Long> ids = LongStream.rangeClosed(1, 1200).boxed().toList();
+        given(employeeRepository.deleteEmployeesByIdIn(anyList()))
+                .willAnswer(invocation -> ((List<?>) invocation.getArgument(0)).size());
+
+        // when - action or behaviour
+        int deleted = employeeService.deleteEmployees(ids);
+
+        // then - verify output
+        assertThat(deleted).isEqualTo(1200);
+        verify(employeeRepository, times(3)).deleteEmployeesByIdIn(anyList());
+    }
+
+    @Test
+    @DisplayName("search employees with a blank query")
+    public void givenBlankQuery_whenSearchEmployees_thenThrowsBadRequest() {
 
         // when - action or behaviour
-        employeeService.deleteEmployee(employeeId);
+        Assertions.assertThrows(BadRequestException.class, () -> employeeService.searchEmployees("  ", 0, 20));
 
         // then - verify output
-        verify(employeeRepository, times(1)).deleteById(employeeId);
+        verifyNoInteractions(searchIndex);
     }
 }
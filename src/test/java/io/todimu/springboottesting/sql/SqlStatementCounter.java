@@ -0,0 +1,109 @@
+package io.todimu.springboottesting.sql;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Records every statement Hibernate prepares on the current thread, so a test can hold a code path to an exact
+ * statement budget and fail the build once it issues more. MockMvc requests run on the test thread and are recorded
+ * too, statements run on other threads are not. Calls to an id sequence are counted apart from other selects:
+ * whether an insert needs one depends on where the pooled allocation happens to stand.
+ * <p>
+ * Installed through {@link #INSPECTOR_PROPERTY}, already set in the {@code test} profile.
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+    public static final String INSPECTOR_PROPERTY =
+            "spring.jpa.properties.hibernate.session_factory.statement_inspector=io.todimu.springboottesting.sql.SqlStatementCounter";
+
+    public enum Type { SELECT, INSERT, UPDATE, DELETE, SEQUENCE, OTHER }
+
+    private static final ThreadLocal<List<String>> STATEMENTS = ThreadLocal.withInitial(ArrayList::new);
+
+    @Override
+    public String inspect(String sql) {
+        STATEMENTS.get().add(sql);
+        return sql;
+    }
+
+    public static void reset() {
+        STATEMENTS.get().clear();
+    }
+
+    public static List<String> statements() {
+        return List.copyOf(STATEMENTS.get());
+    }
+
+    public static int count(Type type) {
+        return (int) STATEMENTS.get().stream().filter(sql -> typeOf(sql) == type).count();
+    }
+
+    /**
+     * Fails unless exactly these numbers of statements were recorded since the last {@link #reset()}, sequence calls
+     * aside. The message lists every recorded statement.
+     */
+    public static void assertStatements(int selects, int inserts, int updates, int deletes) {
+        Map<Type, Integer> expected = new EnumMap<>(Type.class);
+        expected.put(Type.SELECT, selects);
+        expected.put(Type.INSERT, inserts);
+        expected.put(Type.UPDATE, updates);
+        expected.put(Type.DELETE, deletes);
+        expected.put(Type.OTHER, 0);
+
+        Map<Type, Integer> actual = new EnumMap<>(Type.class);
+        expected.keySet().forEach(type -> actual.put(type, count(type)));
+
+        if (!actual.equals(expected)) {
+            throw new AssertionError("Expected " + expected + " statements but got " + actual + ":" + listing());
+        }
+    }
+
+    /**
+     * Fails when the same select ran more than once since the last {@link #reset()}: one query per row of an earlier
+     * result (N+1) shows up as the same parameterised text over and over.
+     */
+    public static void assertNoRepeatedSelects() {
+        Set<String> seen = new HashSet<>();
+        Set<String> repeated = STATEMENTS.get().stream()
+                .filter(sql -> typeOf(sql) == Type.SELECT)
+                .filter(sql -> !seen.add(sql))
+                .collect(Collectors.toSet());
+
+        if (!repeated.isEmpty()) {
+            throw new AssertionError("Selects issued more than once " + repeated + ":" + listing());
+        }
+    }
+
+    private static String listing() {
+        return STATEMENTS.get().stream().map(sql -> "\n  " + sql).collect(Collectors.joining());
+    }
+
+    public static Type typeOf(String sql) {
+        String statement = sql.stripLeading().toLowerCase(Locale.ROOT);
+        // H2 "select next value for employee_seq", MySQL's emulation table "employee_seq"
+        if (statement.contains("_seq")) {
+            return Type.SEQUENCE;
+        }
+        if (statement.startsWith("select") || statement.startsWith("with")) {
+            return Type.SELECT;
+        }
+        if (statement.startsWith("insert")) {
+            return Type.INSERT;
+        }
+        if (statement.startsWith("update")) {
+            return Type.UPDATE;
+        }
+        if (statement.startsWith("delete")) {
+            return Type.DELETE;
+        }
+        return Type.OTHER;
+    }
+}
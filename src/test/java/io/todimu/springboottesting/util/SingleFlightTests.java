@@ -0,0 +1,122 @@
+package io.todimu.springboottesting.util;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SingleFlightTests {
+
+    private final SingleFlight<Long, String> singleFlight = new SingleFlight<>();
+
+    @Test
+    @DisplayName("concurrent calls for the same key share one loader invocation")
+    public void givenConcurrentCallsForSameKey_whenExecute_thenLoaderRunsOnce() throws Exception {
+
+        // given - precondition or setup
+        int callers = 8;
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loaderStarted = new CountDownLatch(1);
+        CountDownLatch releaseLoader = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+
+        try {
+            // when - action or behaviour
+            Future<String> leader = executor.submit(() -> singleFlight.execute(1L, () -> {
+                loads.incrementAndGet();
+                loaderStarted.countDown();
+                await(releaseLoader);
+                return "Todimu";
+            }));
+            assertThat(loaderStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+            List<Future<String>> followers = new ArrayList<>();
+            for (int i = 1; i < callers; i++) {
+                followers.add(executor.submit(() -> singleFlight.execute(1L, () -> {
+                    loads.incrementAndGet();
+                    return "other";
+                })));
+            }
+
+            // give followers time to join the in-flight call before it completes
+            Thread.sleep(100);
+            releaseLoader.countDown();
+
+            // then - verify output
+            assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo("Todimu");
+            for (Future<String> follower : followers) {
+                assertThat(follower.get(5, TimeUnit.SECONDS)).isEqualTo("Todimu");
+            }
+            assertThat(loads.get()).isEqualTo(1);
+            assertThat(singleFlight.inFlightCount()).isZero();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("a failed call is not remembered")
+    public void givenFailingLoader_whenExecuteAgain_thenLoaderRunsAgain() {
+
+        // when - action or behaviour
+        Assertions.assertThrows(IllegalStateException.class, () -> singleFlight.execute(1L, () -> {
+            throw new IllegalStateException("database down");
+        }));
+        String value = singleFlight.execute(1L, () -> "Todimu");
+
+        // then - verify output
+        assertThat(value).isEqualTo("Todimu");
+        assertThat(singleFlight.inFlightCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("a call invalidated while loading returns its result but does not publish it")
+    public void givenInvalidatedWhileLoading_whenExecute_thenResultNotPublished() throws Exception {
+
+        // given - precondition or setup
+        List<String> published = new ArrayList<>();
+        CountDownLatch loaderStarted = new CountDownLatch(1);
+        CountDownLatch releaseLoader = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        try {
+            Future<String> stale = executor.submit(() -> singleFlight.execute(1L, () -> {
+                loaderStarted.countDown();
+                await(releaseLoader);
+                return "Todimu";
+            }, published::add));
+            assertThat(loaderStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+            // when - action or behaviour
+            singleFlight.invalidate(1L);
+            String fresh = singleFlight.execute(1L, () -> "Lani", published::add);
+            releaseLoader.countDown();
+
+            // then - verify output
+            assertThat(stale.get(5, TimeUnit.SECONDS)).isEqualTo("Todimu");
+            assertThat(fresh).isEqualTo("Lani");
+            assertThat(published).containsExactly("Lani");
+            assertThat(singleFlight.inFlightCount()).isZero();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}